@@ -0,0 +1,34 @@
+package istdurstig.config;
+
+import com.mongodb.ConnectionString;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Runs the backend without a MongoDB installation: an in-process server speaking the Mongo wire protocol,
+ * backed by concurrent in-memory collections and indexes, is started on a random local port and both the
+ * blocking and the reactive driver are pointed at it. Repositories and MongoTemplate code paths therefore
+ * run unchanged, which is what the load tests need. Data is lost on shutdown.
+ */
+@Configuration
+@Profile("inmemory")
+public class InMemoryMongoConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public MongoServer inMemoryMongoServer() {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        server.bind("127.0.0.1", 0);
+        return server;
+    }
+
+    @Bean
+    public MongoConnectionDetails mongoConnectionDetails(MongoServer inMemoryMongoServer) {
+        ConnectionString connectionString =
+                new ConnectionString(inMemoryMongoServer.getConnectionString() + "/istdurstig");
+        return () -> connectionString;
+    }
+}
@@ -0,0 +1,80 @@
+package istdurstig.benchmark;
+
+import istdurstig.model.CareEvent;
+import istdurstig.model.FertilizingEvent;
+import istdurstig.model.Plant;
+import istdurstig.model.PlantList;
+import istdurstig.model.Schedule;
+import istdurstig.model.TransplantEvent;
+import istdurstig.model.WateringEvent;
+import istdurstig.model.enums.Frequency;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Deterministic fixtures shared by the benchmarks
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Random random() {
+        return new Random(42);
+    }
+
+    static Plant plant(Random random, int historySize) {
+        Frequency frequency = Frequency.values()[random.nextInt(Frequency.values().length)];
+        Schedule schedule = new Schedule(frequency, LocalDate.now().minusDays(random.nextInt(20)));
+        Plant plant = new Plant("Plant " + random.nextInt(10_000), "Monstera", Set.of("indoor", "living-room"),
+                "Keep away from direct sun", schedule);
+        plant.setId(new ObjectId().toHexString());
+        plant.setVersion(3L);
+
+        // Built directly, addCareEvent would trim to the embedded window
+        List<CareEvent> history = new ArrayList<>(historySize);
+        LocalDateTime timestamp = LocalDateTime.now().minusDays(historySize);
+        for (int i = 0; i < historySize; i++) {
+            CareEvent event = careEvent(random, i);
+            event.setId(new ObjectId().toHexString());
+            event.setPlantId(plant.getId());
+            event.setTimestamp(timestamp.plusDays(i));
+            history.add(event);
+        }
+        plant.setCareHistory(history);
+        return plant;
+    }
+
+    static CareEvent careEvent(Random random, int i) {
+        String userId = "user-" + random.nextInt(50);
+        switch (i % 3) {
+            case 0:
+                return new WateringEvent("Morning watering", userId, 0.25 + random.nextInt(10) / 10.0);
+            case 1:
+                return new FertilizingEvent("Half dose", userId, "NPK 7-3-6");
+            default:
+                return new TransplantEvent("Roots circling", userId, "18cm", "Aroid mix");
+        }
+    }
+
+    static PlantList plantList(int plantCount, int collaboratorCount) {
+        PlantList list = new PlantList("Living room", "Everything by the window", "owner");
+        list.setId(new ObjectId().toHexString());
+        Set<String> collaborators = new HashSet<>();
+        for (int i = 0; i < collaboratorCount; i++) {
+            collaborators.add("collaborator-" + i);
+        }
+        list.setCollaboratorIds(collaborators);
+        List<String> plantIds = new ArrayList<>(plantCount);
+        for (int i = 0; i < plantCount; i++) {
+            plantIds.add(new ObjectId().toHexString());
+        }
+        list.setPlantIds(plantIds);
+        return list;
+    }
+}
@@ -0,0 +1,46 @@
+package istdurstig.benchmark;
+
+import io.jsonwebtoken.Claims;
+import istdurstig.security.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils();
+        set(jwtUtils, "jwtSecret", "istDurstigSecretKey123456789012345678901234567890");
+        set(jwtUtils, "jwtExpirationMs", 86_400_000);
+        Method init = ReflectionUtils.findMethod(JwtUtils.class, "init");
+        ReflectionUtils.makeAccessible(init);
+        ReflectionUtils.invokeMethod(init, jwtUtils);
+        token = jwtUtils.generateJwtToken("65f0c0ffee0000000000beef");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken("65f0c0ffee0000000000beef");
+    }
+
+    @Benchmark
+    public Claims validate() {
+        return jwtUtils.parseVerifiedClaims(token);
+    }
+
+    private static void set(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
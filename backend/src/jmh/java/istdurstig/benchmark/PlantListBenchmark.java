@@ -0,0 +1,69 @@
+package istdurstig.benchmark;
+
+import istdurstig.model.PlantList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlantListBenchmark {
+
+    private static final int REMOVE_BATCH = 100;
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private PlantList list;
+    private List<String> plantIds;
+    private String middlePlantId;
+
+    @Setup
+    public void setup() {
+        list = BenchmarkData.plantList(size, Math.min(size, 1000));
+        plantIds = list.getPlantIds();
+        middlePlantId = plantIds.get(size / 2);
+    }
+
+    // removePlant mutates its list. The copies for one batch of calls are made before each iteration,
+    // so copying up to 100k ids is not part of the measured time
+    @State(Scope.Thread)
+    public static class RemoveCopies {
+        private final Deque<PlantList> lists = new ArrayDeque<>();
+
+        @Setup(Level.Iteration)
+        public void copy(PlantListBenchmark benchmark) {
+            lists.clear();
+            for (int i = 0; i < REMOVE_BATCH; i++) {
+                PlantList copy = new PlantList();
+                copy.setPlantIds(new ArrayList<>(benchmark.plantIds));
+                lists.add(copy);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isUserAllowedCollaborator() {
+        return list.isUserAllowed("collaborator-0");
+    }
+
+    @Benchmark
+    public boolean isUserAllowedStranger() {
+        return list.isUserAllowed("stranger");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(batchSize = REMOVE_BATCH)
+    @Measurement(batchSize = REMOVE_BATCH)
+    public List<String> removePlant(RemoveCopies copies) {
+        PlantList copy = copies.lists.poll();
+        copy.removePlant(middlePlantId);
+        return copy.getPlantIds();
+    }
+}
@@ -0,0 +1,78 @@
+package istdurstig.benchmark;
+
+import istdurstig.config.MongoConfig;
+import istdurstig.model.Plant;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Spring Data's entity <-> Document mapping plus the driver's Document <-> BSON encoding, with the application's
+// care event converters (compact) and with reflective mapping and _class hints (mapped)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlantMappingBenchmark {
+
+    @Param({"20", "1000"})
+    private int historySize;
+
+    @Param({"compact", "mapped"})
+    private String encoding;
+
+    private final DocumentCodec codec = new DocumentCodec();
+    private MappingMongoConverter converter;
+    private Plant plant;
+    private Document document;
+    private RawBsonDocument bson;
+
+    @Setup
+    public void setup() {
+        MongoCustomConversions conversions = "compact".equals(encoding)
+                ? new MongoConfig().mongoCustomConversions()
+                : new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        plant = BenchmarkData.plant(BenchmarkData.random(), historySize);
+        document = new Document();
+        converter.write(plant, document);
+        bson = new RawBsonDocument(document, codec);
+    }
+
+    @Benchmark
+    public Document writeDocument() {
+        Document target = new Document();
+        converter.write(plant, target);
+        return target;
+    }
+
+    @Benchmark
+    public Plant readDocument() {
+        return converter.read(Plant.class, document);
+    }
+
+    @Benchmark
+    public RawBsonDocument writeBson() {
+        Document target = new Document();
+        converter.write(plant, target);
+        return new RawBsonDocument(target, codec);
+    }
+
+    @Benchmark
+    public Plant readBson() {
+        return converter.read(Plant.class, bson.decode(codec));
+    }
+}
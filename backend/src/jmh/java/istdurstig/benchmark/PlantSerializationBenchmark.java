@@ -0,0 +1,62 @@
+package istdurstig.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import istdurstig.json.CareEventSerializer;
+import istdurstig.json.ResponseJsonModule;
+import istdurstig.model.CareEvent;
+import istdurstig.model.Plant;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Compare gc.alloc.rate.norm between the reflective bean serializers with summaries (the response before
+// ResponseJsonModule) and the streaming serializers, which skip summaries unless ?summaries=true
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlantSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int historySize;
+
+    @Param({"bean", "streaming"})
+    private String serializers;
+
+    // Same defaults Spring Boot applies to the HTTP message converters
+    private ObjectMapper objectMapper;
+    private ObjectWriter withSummaries;
+    private Plant plant;
+
+    @Setup
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("streaming".equals(serializers)) {
+            builder.modulesToInstall(new ResponseJsonModule(), new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        withSummaries = objectMapper.writer().withAttribute(CareEventSerializer.SUMMARIES_ATTRIBUTE, Boolean.TRUE);
+        plant = BenchmarkData.plant(BenchmarkData.random(), historySize);
+    }
+
+    @Benchmark
+    public byte[] serializePlant() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(plant);
+    }
+
+    @Benchmark
+    public byte[] serializePlantWithSummaries() throws JsonProcessingException {
+        return withSummaries.writeValueAsBytes(plant);
+    }
+
+    @Benchmark
+    public void buildSummaries(Blackhole blackhole) {
+        for (CareEvent event : plant.getCareHistory()) {
+            blackhole.consume(event.getSummary());
+        }
+    }
+}
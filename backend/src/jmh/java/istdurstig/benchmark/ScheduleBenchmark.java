@@ -0,0 +1,54 @@
+package istdurstig.benchmark;
+
+import istdurstig.model.Plant;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScheduleBenchmark {
+
+    @Param({"1000", "100000"})
+    private int plantCount;
+
+    private Plant[] plants;
+
+    @Setup
+    public void setup() {
+        Random random = BenchmarkData.random();
+        plants = new Plant[plantCount];
+        for (int i = 0; i < plantCount; i++) {
+            plants[i] = BenchmarkData.plant(random, 0);
+        }
+    }
+
+    // What the due-today endpoint used to evaluate per plant
+    @Benchmark
+    public int needsWatering() {
+        int due = 0;
+        for (Plant plant : plants) {
+            if (plant.needsWatering()) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+    // The persisted nextWateringDate comparison the indexed query now performs
+    @Benchmark
+    public int nextWateringDate() {
+        LocalDate today = LocalDate.now();
+        int due = 0;
+        for (Plant plant : plants) {
+            LocalDate next = plant.getNextWateringDate();
+            if (next == null || next.isBefore(today)) {
+                due++;
+            }
+        }
+        return due;
+    }
+}
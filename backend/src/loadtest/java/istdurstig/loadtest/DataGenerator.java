@@ -0,0 +1,179 @@
+package istdurstig.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds a synthetic data set through the public API: N users, M lists owned round-robin and shared with a
+ * few collaborators each, K plants spread over the lists, and a care history of H events per plant written
+ * through the bulk endpoint. Going through the API means the same generator works against any deployment.
+ */
+class DataGenerator {
+
+    static final String PASSWORD = "loadtest-password";
+    private static final int BULK_BATCH = 1000;
+
+    static class Session {
+        final String id;
+        final String email;
+        final String token;
+        final List<String> listIds = Collections.synchronizedList(new ArrayList<>());
+        final List<String> plantIds = Collections.synchronizedList(new ArrayList<>());
+
+        Session(String id, String email, String token) {
+            this.id = id;
+            this.email = email;
+            this.token = token;
+        }
+    }
+
+    private final ApiClient client;
+    private final ExecutorService executor;
+    private final Random random = new Random(42);
+
+    DataGenerator(ApiClient client, int parallelism) {
+        this.client = client;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    List<Session> generate(int users, int lists, int plants, int history, int collaborators) {
+        try {
+            String run = Long.toString(System.currentTimeMillis(), 36);
+            List<Session> sessions = createUsers(run, users);
+            log("created %d users", sessions.size());
+
+            List<String> listIds = new ArrayList<>();
+            List<Session> listOwners = new ArrayList<>();
+            List<List<Session>> listMembers = new ArrayList<>();
+            for (int i = 0; i < lists; i++) {
+                Session owner = sessions.get(i % sessions.size());
+                JsonNode list = require(client.post("setup: create list", "/api/plant-lists", owner.token,
+                        Map.of("name", "List " + i, "description", "Synthetic list " + i)));
+                String listId = list.get("id").asText();
+                List<Session> members = new ArrayList<>(List.of(owner));
+                for (int c = 0; c < Math.min(collaborators, sessions.size() - 1); c++) {
+                    Session collaborator = sessions.get((i + c + 1) % sessions.size());
+                    client.post("setup: share list", "/api/plant-lists/" + listId + "/share", owner.token,
+                            Map.of("email", collaborator.email));
+                    members.add(collaborator);
+                }
+                listIds.add(listId);
+                listOwners.add(owner);
+                listMembers.add(members);
+                members.forEach(member -> member.listIds.add(listId));
+            }
+            log("created %d lists", listIds.size());
+
+            List<Future<?>> pending = new ArrayList<>();
+            for (int i = 0; i < plants; i++) {
+                int index = i;
+                pending.add(executor.submit(() -> {
+                    int listIndex = index % listIds.size();
+                    Session owner = listOwners.get(listIndex);
+                    String plantId = createPlant(owner, index);
+                    client.post("setup: add plant to list",
+                            "/api/plant-lists/" + listIds.get(listIndex) + "/plants/" + plantId, owner.token, null);
+                    listMembers.get(listIndex).forEach(member -> member.plantIds.add(plantId));
+                    writeHistory(owner, plantId, history);
+                }));
+            }
+            await(pending);
+            log("created %d plants with %d care events each", plants, history);
+            return sessions;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<Session> createUsers(String run, int users) {
+        List<Future<Session>> pending = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String email = "loadtest-" + run + "-" + i + "@example.com";
+            int index = i;
+            pending.add(executor.submit(() -> {
+                JsonNode auth = require(client.post("setup: signup", "/api/auth/signup", null, Map.of(
+                        "email", email, "password", PASSWORD, "firstName", "Load", "lastName", "User " + index)));
+                return new Session(auth.get("id").asText(), email, auth.get("token").asText());
+            }));
+        }
+        List<Session> sessions = new ArrayList<>();
+        for (Future<Session> future : pending) {
+            sessions.add(await(future));
+        }
+        return sessions;
+    }
+
+    private String createPlant(Session owner, int index) {
+        String[] frequencies = {"FREQUENT", "MEDIUM", "RARE"};
+        JsonNode plant = require(client.post("setup: create plant", "/api/plants", owner.token, Map.of(
+                "name", "Plant " + index,
+                "type", "Synthetic",
+                "tags", List.of("loadtest"),
+                "notes", "Generated",
+                "frequency", frequencies[index % frequencies.length])));
+        return plant.get("id").asText();
+    }
+
+    private void writeHistory(Session owner, String plantId, int history) {
+        for (int written = 0; written < history; written += BULK_BATCH) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int i = written; i < Math.min(history, written + BULK_BATCH); i++) {
+                items.add(Map.of("plantId", plantId, "event", careEvent(i)));
+            }
+            client.post("setup: bulk care events", "/api/care-events/bulk", owner.token, Map.of("items", items));
+        }
+    }
+
+    static Map<String, Object> careEvent(int i) {
+        Map<String, Object> additionalData = new HashMap<>();
+        String type;
+        switch (i % 3) {
+            case 0:
+                type = "WATERING";
+                additionalData.put("amount", 0.5);
+                break;
+            case 1:
+                type = "FERTILIZING";
+                additionalData.put("fertilizerType", "NPK 7-3-6");
+                break;
+            default:
+                type = "TRANSPLANTING";
+                additionalData.put("potSize", "18cm");
+                additionalData.put("soilType", "Aroid mix");
+        }
+        return Map.of("type", type, "notes", "Synthetic event " + i, "additionalData", additionalData);
+    }
+
+    private static JsonNode require(ApiClient.Response response) {
+        if (!response.ok() || response.body() == null) {
+            throw new IllegalStateException("Setup request failed with status " + response.status()
+                    + (response.body() != null ? ": " + response.body() : ""));
+        }
+        return response.body();
+    }
+
+    private static void await(List<Future<?>> futures) {
+        futures.forEach(DataGenerator::await);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Data generation failed", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[setup] " + format + "%n", args);
+    }
+}
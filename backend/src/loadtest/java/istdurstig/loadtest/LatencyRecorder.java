@@ -0,0 +1,74 @@
+package istdurstig.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps every sample per endpoint so the tail percentiles are exact rather than bucketed
+class LatencyRecorder {
+
+    private static class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long value, boolean success) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (!success) {
+                errors++;
+            }
+        }
+    }
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    void record(String endpoint, long nanos, boolean success) {
+        if (enabled) {
+            samples.computeIfAbsent(endpoint, e -> new Samples()).add(nanos, success);
+        }
+    }
+
+    void reset() {
+        samples.clear();
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    String report(double seconds) {
+        StringBuilder out = new StringBuilder(String.format("%-28s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        long totalRequests = 0;
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(samples).entrySet()) {
+            Samples s = entry.getValue();
+            long[] sorted;
+            int errors;
+            synchronized (s) {
+                sorted = Arrays.copyOf(s.nanos, s.count);
+                errors = s.errors;
+            }
+            Arrays.sort(sorted);
+            totalRequests += sorted.length;
+            out.append(String.format("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), sorted.length, errors, sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0));
+        }
+        out.append(String.format("%-28s %9d %7s %9.1f%n", "total", totalRequests, "", totalRequests / seconds));
+        return out.toString();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
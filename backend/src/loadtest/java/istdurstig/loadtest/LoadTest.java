@@ -0,0 +1,155 @@
+package istdurstig.loadtest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load test against a running backend, e.g. one started with the inmemory profile.
+ * Generates the synthetic data set, warms up, then lets every worker issue a weighted mix of the
+ * endpoints the web app and kiosk screens use and prints throughput and p50/p99/p999 per endpoint.
+ *
+ * ./gradlew loadTest -PloadTestArgs="--users 50 --lists 20 --plants 500 --history 200 --concurrency 64"
+ */
+public class LoadTest {
+
+    private static final Map<String, Integer> MIX = Map.of(
+            "GET /plants", 25,
+            "GET /plants/{id}", 15,
+            "GET /plants/due-today", 15,
+            "POST /plants/{id}/care-events", 15,
+            "GET /plant-lists", 10,
+            "GET /plant-lists/{id}", 8,
+            "GET /dashboard", 7,
+            "GET /users/search", 4,
+            "POST /auth/signin", 1);
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int users = intOption(options, "users", 20);
+        int lists = intOption(options, "lists", 10);
+        int plants = intOption(options, "plants", 200);
+        int history = intOption(options, "history", 100);
+        int collaborators = intOption(options, "collaborators", 2);
+        int concurrency = intOption(options, "concurrency", 32);
+        int warmupSeconds = intOption(options, "warmup", 10);
+        int durationSeconds = intOption(options, "duration", 60);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        ApiClient client = new ApiClient(baseUrl, recorder);
+        long setupStart = System.nanoTime();
+        List<DataGenerator.Session> sessions = new DataGenerator(client, Math.min(concurrency, 16))
+                .generate(users, lists, plants, history, collaborators);
+        System.out.println(recorder.report((System.nanoTime() - setupStart) / 1e9));
+
+        System.out.printf("[run] warming up for %ds%n", warmupSeconds);
+        drive(client, sessions, concurrency, warmupSeconds);
+        recorder.reset();
+
+        System.out.printf("[run] measuring for %ds with %d workers%n", durationSeconds, concurrency);
+        long start = System.nanoTime();
+        drive(client, sessions, concurrency, durationSeconds);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.println(recorder.report(elapsed));
+    }
+
+    private static void drive(ApiClient client, List<DataGenerator.Session> sessions, int concurrency, int seconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        DataGenerator.Session session = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+                        request(client, session, pick());
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "loadtest-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+    }
+
+    private static void request(ApiClient client, DataGenerator.Session session, String endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String plantId = randomOf(session.plantIds, random);
+        String listId = randomOf(session.listIds, random);
+        switch (endpoint) {
+            case "GET /plants/{id}":
+                if (plantId != null) {
+                    client.get(endpoint, "/api/plants/" + plantId, session.token);
+                }
+                break;
+            case "GET /plants/due-today":
+                client.get(endpoint, "/api/plants/due-today", session.token);
+                break;
+            case "POST /plants/{id}/care-events":
+                if (plantId != null) {
+                    client.post(endpoint, "/api/plants/" + plantId + "/care-events", session.token,
+                            DataGenerator.careEvent(random.nextInt(3)));
+                }
+                break;
+            case "GET /plant-lists":
+                client.get(endpoint, "/api/plant-lists", session.token);
+                break;
+            case "GET /plant-lists/{id}":
+                if (listId != null) {
+                    client.get(endpoint, "/api/plant-lists/" + listId, session.token);
+                }
+                break;
+            case "GET /dashboard":
+                client.get(endpoint, "/api/dashboard", session.token);
+                break;
+            case "GET /users/search":
+                client.get(endpoint, "/api/users/search?email=" + session.email.substring(0, 12), session.token);
+                break;
+            case "POST /auth/signin":
+                client.post(endpoint, "/api/auth/signin", null,
+                        Map.of("email", session.email, "password", DataGenerator.PASSWORD));
+                break;
+            default:
+                client.get(endpoint, "/api/plants", session.token);
+        }
+    }
+
+    private static String pick() {
+        int total = MIX.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Entry<String, Integer> entry : MIX.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return "GET /plants";
+    }
+
+    private static String randomOf(List<String> ids, ThreadLocalRandom random) {
+        synchronized (ids) {
+            return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+}
@@ -0,0 +1,157 @@
+package istdurstig.config;
+
+import istdurstig.model.CareEvent;
+import istdurstig.model.FertilizingEvent;
+import istdurstig.model.TransplantEvent;
+import istdurstig.model.WateringEvent;
+import istdurstig.model.enums.CareEventType;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Hand-written mapping for care events, which are stored by the thousand in care_events and embedded in
+ * Plant.careHistory. The existing type field is the discriminator, so no _class is written, and reading
+ * switches on it instead of resolving the class reflectively. Field names and encodings are the ones the
+ * mapping layer used, so documents written before these converters, _class included, still read back.
+ */
+public final class CareEventConverters {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private CareEventConverters() {
+    }
+
+    public static List<Converter<?, ?>> converters() {
+        return List.of(new WateringEventWriter(), new FertilizingEventWriter(), new TransplantEventWriter(),
+                new CareEventReader(), new WateringEventReader(), new FertilizingEventReader(),
+                new TransplantEventReader());
+    }
+
+    @WritingConverter
+    static class WateringEventWriter implements Converter<WateringEvent, Document> {
+        @Override
+        public Document convert(WateringEvent source) {
+            return writeCommon(source).append("amountLiters", source.getAmountLiters());
+        }
+    }
+
+    @WritingConverter
+    static class FertilizingEventWriter implements Converter<FertilizingEvent, Document> {
+        @Override
+        public Document convert(FertilizingEvent source) {
+            Document document = writeCommon(source);
+            putIfNotNull(document, "fertilizerType", source.getFertilizerType());
+            return document;
+        }
+    }
+
+    @WritingConverter
+    static class TransplantEventWriter implements Converter<TransplantEvent, Document> {
+        @Override
+        public Document convert(TransplantEvent source) {
+            Document document = writeCommon(source);
+            putIfNotNull(document, "newPotSize", source.getNewPotSize());
+            putIfNotNull(document, "soilType", source.getSoilType());
+            return document;
+        }
+    }
+
+    // Reads both the compact form and documents that still carry the subclass as _class
+    @ReadingConverter
+    static class CareEventReader implements Converter<Document, CareEvent> {
+        @Override
+        public CareEvent convert(Document source) {
+            return read(source);
+        }
+    }
+
+    @ReadingConverter
+    static class WateringEventReader implements Converter<Document, WateringEvent> {
+        @Override
+        public WateringEvent convert(Document source) {
+            return (WateringEvent) read(source);
+        }
+    }
+
+    @ReadingConverter
+    static class FertilizingEventReader implements Converter<Document, FertilizingEvent> {
+        @Override
+        public FertilizingEvent convert(Document source) {
+            return (FertilizingEvent) read(source);
+        }
+    }
+
+    @ReadingConverter
+    static class TransplantEventReader implements Converter<Document, TransplantEvent> {
+        @Override
+        public TransplantEvent convert(Document source) {
+            return (TransplantEvent) read(source);
+        }
+    }
+
+    static CareEvent read(Document source) {
+        CareEventType type = CareEventType.valueOf(source.getString("type"));
+        CareEvent event;
+        switch (type) {
+            case WATERING:
+                WateringEvent watering = new WateringEvent();
+                Number amount = source.get("amountLiters", Number.class);
+                watering.setAmountLiters(amount != null ? amount.doubleValue() : 0.0);
+                event = watering;
+                break;
+            case FERTILIZING:
+                FertilizingEvent fertilizing = new FertilizingEvent();
+                fertilizing.setFertilizerType(source.getString("fertilizerType"));
+                event = fertilizing;
+                break;
+            case TRANSPLANTING:
+                TransplantEvent transplant = new TransplantEvent();
+                transplant.setNewPotSize(source.getString("newPotSize"));
+                transplant.setSoilType(source.getString("soilType"));
+                event = transplant;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown care event type: " + type);
+        }
+
+        Object id = source.get("_id");
+        event.setId(id != null ? (id instanceof ObjectId objectId ? objectId.toHexString() : id.toString()) : null);
+        event.setPlantId(source.getString("plantId"));
+        event.setType(type);
+        Date timestamp = source.getDate("timestamp");
+        event.setTimestamp(timestamp != null ? LocalDateTime.ofInstant(timestamp.toInstant(), ZONE) : null);
+        event.setNotes(source.getString("notes"));
+        event.setUserId(source.getString("userId"));
+        return event;
+    }
+
+    // Same encodings as the mapping layer: hex ids as ObjectId, LocalDateTime as a Date in the system zone
+    private static Document writeCommon(CareEvent source) {
+        Document document = new Document();
+        if (source.getId() != null) {
+            document.put("_id", ObjectId.isValid(source.getId()) ? new ObjectId(source.getId()) : source.getId());
+        }
+        putIfNotNull(document, "plantId", source.getPlantId());
+        document.put("type", source.getType().name());
+        if (source.getTimestamp() != null) {
+            document.put("timestamp", Date.from(source.getTimestamp().atZone(ZONE).toInstant()));
+        }
+        putIfNotNull(document, "notes", source.getNotes());
+        putIfNotNull(document, "userId", source.getUserId());
+        return document;
+    }
+
+    private static void putIfNotNull(Document document, String key, Object value) {
+        if (value != null) {
+            document.put(key, value);
+        }
+    }
+}
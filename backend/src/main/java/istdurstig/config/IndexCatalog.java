@@ -0,0 +1,127 @@
+package istdurstig.config;
+
+import istdurstig.model.CareEvent;
+import istdurstig.model.Plant;
+import istdurstig.model.PlantList;
+import istdurstig.model.User;
+import istdurstig.service.PhotoService;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The managed index set. The indexes themselves are declared with @Indexed/@CompoundIndex on the entities listed
+ * here; at startup they are either created (app.indexes.mode=create) or, where indexes are rolled out separately,
+ * checked against the database (app.indexes.mode=verify), in which case a missing index stops the application.
+ * Runs before the web server accepts requests, so signup never runs without the unique email index.
+ */
+@Component
+public class IndexCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexCatalog.class);
+
+    private static final List<Class<?>> ENTITIES = List.of(User.class, Plant.class, PlantList.class, CareEvent.class);
+
+    // Photos are stored under their content hash; the index makes concurrent uploads of one photo store it once
+    private static final String PHOTO_FILES = "fs.files";
+    private static final Index PHOTO_FILENAME = new Index("filename", Sort.Direction.ASC).unique().named("filename_unique");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Value("${app.indexes.mode:create}")
+    private String mode;
+
+    @PostConstruct
+    public void apply() {
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        List<String> missing = new ArrayList<>();
+        int declared = 0;
+
+        for (Class<?> entity : ENTITIES) {
+            String collection = mongoTemplate.getCollectionName(entity);
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            List<IndexInfo> existing = "verify".equals(mode) ? indexOps.getIndexInfo() : List.of();
+
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity)) {
+                declared++;
+                if ("verify".equals(mode)) {
+                    if (existing.stream().noneMatch(info -> matches(info, definition))) {
+                        missing.add(collection + " " + definition.getIndexKeys().toJson());
+                    }
+                } else {
+                    indexOps.ensureIndex(definition);
+                }
+            }
+        }
+
+        declared++;
+        IndexOperations photoIndexOps = mongoTemplate.indexOps(PHOTO_FILES);
+        if ("verify".equals(mode)) {
+            if (photoIndexOps.getIndexInfo().stream().noneMatch(info -> matches(info, PHOTO_FILENAME))) {
+                missing.add(PHOTO_FILES + " " + PHOTO_FILENAME.getIndexKeys().toJson());
+            }
+        } else {
+            try {
+                photoIndexOps.ensureIndex(PHOTO_FILENAME);
+            } catch (DuplicateKeyException e) {
+                // Left behind by uploads that raced before the index existed
+                logger.info("Removed {} duplicate photo files", photoService.removeDuplicateFiles());
+                photoIndexOps.ensureIndex(PHOTO_FILENAME);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Missing indexes: " + String.join(", ", missing));
+        }
+        logger.info("{} {} declared indexes", "verify".equals(mode) ? "Verified" : "Ensured", declared);
+    }
+
+    private static boolean matches(IndexInfo info, IndexDefinition definition) {
+        boolean unique = Boolean.TRUE.equals(definition.getIndexOptions().get("unique"));
+        return info.isUnique() == unique && keysOf(info).equals(keysOf(definition.getIndexKeys()));
+    }
+
+    private static String keysOf(IndexInfo info) {
+        return info.getIndexFields().stream()
+                .map(field -> field.getKey() + ":" + direction(field))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String keysOf(Document keys) {
+        return keys.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    private static String direction(IndexField field) {
+        if (field.getDirection() == null) {
+            return "?";
+        }
+        return field.getDirection() == Sort.Direction.ASC ? "1" : "-1";
+    }
+}
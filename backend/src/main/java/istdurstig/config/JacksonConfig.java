@@ -0,0 +1,89 @@
+package istdurstig.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import istdurstig.json.CareEventSerializer;
+import istdurstig.json.ResponseJsonModule;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Module beans are registered with Boot's ObjectMapper; the converters only add the per-request summaries switch
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module responseJsonModule() {
+        return new ResponseJsonModule();
+    }
+
+    // Generated accessors instead of reflection for the bean serializers that remain (DTOs, Schedule, ...)
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                ServletRequestAttributes request = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+                if (request != null && CareEventSerializer.summariesRequested(
+                        request.getRequest().getParameter(CareEventSerializer.SUMMARIES_PARAM))) {
+                    return writer.withAttribute(CareEventSerializer.SUMMARIES_ATTRIBUTE, Boolean.TRUE);
+                }
+                return writer;
+            }
+        };
+    }
+
+    // Runs after Boot's own Jackson codec customizer and replaces its encoder
+    @Bean
+    @Order(1)
+    @Profile("reactive")
+    public CodecCustomizer summariesJacksonCodecCustomizer(ObjectMapper objectMapper) {
+        return configurer -> configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper) {
+            @Override
+            public Map<String, Object> getEncodeHints(ResolvableType actualType, ResolvableType elementType,
+                                                      MediaType mediaType, ServerHttpRequest request,
+                                                      ServerHttpResponse response) {
+                Map<String, Object> hints = super.getEncodeHints(actualType, elementType, mediaType, request, response);
+                if (!CareEventSerializer.summariesRequested(
+                        request.getQueryParams().getFirst(CareEventSerializer.SUMMARIES_PARAM))) {
+                    return hints;
+                }
+                Map<String, Object> withSummaries = new HashMap<>(hints);
+                withSummaries.put(CareEventSerializer.SUMMARIES_ATTRIBUTE, Boolean.TRUE);
+                return withSummaries;
+            }
+
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, MimeType mimeType, ResolvableType elementType,
+                                                   Map<String, Object> hints) {
+                if (hints != null && hints.containsKey(CareEventSerializer.SUMMARIES_ATTRIBUTE)) {
+                    return writer.withAttribute(CareEventSerializer.SUMMARIES_ATTRIBUTE, Boolean.TRUE);
+                }
+                return writer;
+            }
+        });
+    }
+}
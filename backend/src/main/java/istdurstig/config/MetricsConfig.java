@@ -0,0 +1,17 @@
+package istdurstig.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Boot's own Mongo command metrics are switched off in application.properties in favour of MongoCommandMetrics
+@Configuration
+public class MetricsConfig {
+
+    // Applies to the blocking and the reactive client alike
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MeterRegistry meterRegistry) {
+        return settings -> settings.addCommandListener(new MongoCommandMetrics(meterRegistry));
+    }
+}
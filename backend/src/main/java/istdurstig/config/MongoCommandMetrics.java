@@ -0,0 +1,132 @@
+package istdurstig.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every Mongo command by collection and operation, and records the size of the documents returned from
+ * the plants and plant_lists collections. Replies arrive as raw BSON, so a document's size is read off its
+ * buffer without encoding it again.
+ */
+public class MongoCommandMetrics implements CommandListener {
+
+    private final MeterRegistry meterRegistry;
+
+    // Collection of each in-flight command; the completion events only carry the request id
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> documentSizes;
+
+    // One timer per tag combination, registered on first use instead of looked up by the registry per command
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(String collection, String operation, String status) {
+    }
+
+    public MongoCommandMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.documentSizes = Map.of(
+                "plants", documentSize(meterRegistry, "plants"),
+                "plant_lists", documentSize(meterRegistry, "plant_lists"));
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        collections.put(event.getRequestId(), collectionOf(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collections.remove(event.getRequestId());
+        record(collection, event.getCommandName(), "success", event.getElapsedTime(TimeUnit.NANOSECONDS));
+
+        DistributionSummary sizes = collection != null ? documentSizes.get(collection) : null;
+        if (sizes != null) {
+            recordDocumentSizes(event.getCommandName(), event.getResponse(), sizes);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        String collection = collections.remove(event.getRequestId());
+        record(collection, event.getCommandName(), "failure", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(String collection, String operation, String status, long nanos) {
+        TimerKey key = new TimerKey(collection != null ? collection : "none", operation, status);
+        timers.computeIfAbsent(key, this::commandTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer commandTimer(TimerKey key) {
+        return Timer.builder("mongodb.command")
+                .description("Mongo command round trips")
+                .tag("collection", key.collection())
+                .tag("operation", key.operation())
+                .tag("status", key.status())
+                .register(meterRegistry);
+    }
+
+    private static void recordDocumentSizes(String commandName, BsonDocument response, DistributionSummary sizes) {
+        switch (commandName) {
+            case "find", "aggregate" -> recordBatch(response, "firstBatch", sizes);
+            case "getMore" -> recordBatch(response, "nextBatch", sizes);
+            case "findAndModify" -> {
+                BsonValue value = response.get("value");
+                if (value != null && value.isDocument()) {
+                    sizes.record(sizeOf(value.asDocument()));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void recordBatch(BsonDocument response, String batchField, DistributionSummary sizes) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor == null || !cursor.isDocument()) {
+            return;
+        }
+        BsonValue batch = cursor.asDocument().get(batchField);
+        if (batch == null || !batch.isArray()) {
+            return;
+        }
+        for (BsonValue document : batch.asArray()) {
+            if (document.isDocument()) {
+                sizes.record(sizeOf(document.asDocument()));
+            }
+        }
+    }
+
+    private static int sizeOf(BsonDocument document) {
+        RawBsonDocument raw = document instanceof RawBsonDocument rawDocument
+                ? rawDocument : new RawBsonDocument(document, new BsonDocumentCodec());
+        return raw.getByteBuffer().remaining();
+    }
+
+    // Collection commands name their collection as the value of the command key; getMore has a separate field
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    private static DistributionSummary documentSize(MeterRegistry meterRegistry, String collection) {
+        return DistributionSummary.builder("mongodb.document.size")
+                .description("Size of documents returned by Mongo")
+                .baseUnit("bytes")
+                .tag("collection", collection)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package istdurstig.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+// Picked up by Boot's Mongo auto-configuration for both the blocking and the reactive MongoTemplate
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(CareEventConverters.converters());
+    }
+}
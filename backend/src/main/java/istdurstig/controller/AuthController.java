@@ -6,12 +6,14 @@ import istdurstig.dto.RegisterRequest;
 import istdurstig.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/auth")
+@Profile("!reactive")
 public class AuthController {
     
     @Autowired
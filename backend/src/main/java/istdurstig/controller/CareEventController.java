@@ -0,0 +1,29 @@
+package istdurstig.controller;
+
+import istdurstig.dto.BulkCareEventRequest;
+import istdurstig.dto.BulkCareEventResponse;
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.PlantService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/care-events")
+@Profile("!reactive")
+public class CareEventController {
+
+    @Autowired
+    private PlantService plantService;
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCareEventResponse> addCareEventsBulk(@Valid @RequestBody BulkCareEventRequest request,
+                                                                   @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        BulkCareEventResponse response = plantService.addCareEventsBulk(request, userPrincipal.getId());
+        return ResponseEntity.ok(response);
+    }
+}
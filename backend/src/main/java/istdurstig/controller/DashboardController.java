@@ -0,0 +1,27 @@
+package istdurstig.controller;
+
+import istdurstig.dto.DashboardResponse;
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/dashboard")
+@Profile("!reactive")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @GetMapping
+    public ResponseEntity<DashboardResponse> getDashboard(@RequestParam(defaultValue = "5") int top,
+                                                          @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        DashboardResponse dashboard = dashboardService.getDashboard(userPrincipal.getId(), Math.max(1, Math.min(top, 50)));
+        return ResponseEntity.ok(dashboard);
+    }
+}
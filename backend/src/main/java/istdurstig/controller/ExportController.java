@@ -0,0 +1,54 @@
+package istdurstig.controller;
+
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/export")
+@Profile("!reactive")
+public class ExportController {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    @Autowired
+    private ExportService exportService;
+
+    // Written from the async executor straight into the response, never buffered as a whole
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "false") boolean gzip,
+                                                        @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        String userId = userPrincipal.getId();
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                exportService.export(userId, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(userId, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(gzip).toString())
+                .contentType(gzip ? GZIP : NDJSON)
+                .body(body);
+    }
+
+    static ContentDisposition attachment(boolean gzip) {
+        return ContentDisposition.attachment()
+                .filename(gzip ? "istdurstig-export.ndjson.gz" : "istdurstig-export.ndjson")
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package istdurstig.controller;
+
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/import")
+@Profile("!reactive")
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    // Reads the request body while writing progress records, so neither side is held in memory
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    public void importPlants(@RequestParam(required = false) String listId,
+                             @AuthenticationPrincipal UserPrincipal userPrincipal,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        // Bodies without a length are cut off by the import itself once they pass the limit
+        if (request.getContentLengthLong() > importService.getMaxBytes()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Import larger than " + importService.getMaxBytes() + " bytes");
+        }
+        ImportService.Format format = ImportService.Format.of(MediaType.parseMediaType(request.getContentType()));
+        response.setContentType(ExportController.NDJSON.toString());
+        importService.importPlants(userPrincipal.getId(), request.getInputStream(), format, listId,
+                response.getOutputStream());
+    }
+}
@@ -0,0 +1,62 @@
+package istdurstig.controller;
+
+import istdurstig.dto.PhotoResponse;
+import istdurstig.service.PhotoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.concurrent.TimeUnit;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/photos")
+@Profile("!reactive")
+public class PhotoController {
+
+    static final String NOSNIFF = "X-Content-Type-Options";
+
+    @Autowired
+    private PhotoService photoService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<PhotoResponse> uploadPhoto(@RequestParam("file") MultipartFile file) {
+        String id = photoService.storePhoto(file);
+        return ResponseEntity.ok(new PhotoResponse(id, PhotoService.PHOTO_URL_PREFIX + id));
+    }
+
+    // Returning the resource lets Spring stream it and answer Range requests with partial content
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> getPhoto(@PathVariable String id, WebRequest webRequest) {
+        String etag = "\"" + id + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        GridFsResource photo = photoService.getPhoto(id);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .header(NOSNIFF, "nosniff")
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition(photo.getContentType()).toString())
+                .contentType(PhotoService.servedContentType(photo.getContentType()))
+                .body(photo);
+    }
+
+    // Photos are served from the API origin, so browsers must never sniff them into something executable
+    static ContentDisposition disposition(String storedType) {
+        return PhotoService.isAllowedType(storedType)
+                ? ContentDisposition.inline().build()
+                : ContentDisposition.attachment().filename("photo").build();
+    }
+}
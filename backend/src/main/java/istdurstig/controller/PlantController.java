@@ -2,36 +2,67 @@ package istdurstig.controller;
 
 import istdurstig.dto.PlantRequest;
 import istdurstig.dto.CareEventRequest;
+import istdurstig.dto.CursorPage;
+import istdurstig.dto.PlantSummary;
+import istdurstig.model.CareEvent;
+import istdurstig.model.CareStats;
 import istdurstig.model.Plant;
 import istdurstig.security.UserPrincipal;
+import istdurstig.service.ETags;
 import istdurstig.service.PlantService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/plants")
+@Profile("!reactive")
 public class PlantController {
-    
+
     @Autowired
     private PlantService plantService;
 
     @GetMapping
-    public ResponseEntity<List<Plant>> getAllPlants(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        List<Plant> plants = plantService.getAllPlantsForUser(userPrincipal.getId());
-        return ResponseEntity.ok(plants);
+    public ResponseEntity<List<PlantSummary>> getAllPlants(@RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String after,
+                                                           @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                           WebRequest webRequest) {
+        int pageSize = CursorPage.clampLimit(limit);
+        String etag = plantService.getPlantSummariesETag(userPrincipal.getId(), after, pageSize);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        CursorPage<PlantSummary> page = plantService.getPlantSummariesForUser(userPrincipal.getId(), after, pageSize);
+        return ResponseEntity.ok().headers(page.toHeaders()).eTag(etag).body(page.getItems());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Plant> getPlantById(@PathVariable String id, 
-                                            @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        Plant plant = plantService.getPlantById(id, userPrincipal.getId());
-        return ResponseEntity.ok(plant);
+    public ResponseEntity<Plant> getPlantById(@PathVariable String id,
+                                            @RequestParam(required = false) Integer history,
+                                            @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                            WebRequest webRequest) {
+        Integer historySize = history != null ? Math.max(0, history) : null;
+        String etag = plantService.getPlantETag(id, userPrincipal.getId(), historySize);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        Plant plant = historySize != null
+                ? plantService.getPlantById(id, userPrincipal.getId(), historySize)
+                : plantService.getPlantById(id, userPrincipal.getId());
+        return ResponseEntity.ok().eTag(etag).body(plant);
     }
 
     @PostMapping
@@ -44,29 +75,60 @@ public class PlantController {
     @PutMapping("/{id}")
     public ResponseEntity<Plant> updatePlant(@PathVariable String id,
                                            @Valid @RequestBody PlantRequest plantRequest,
+                                           @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                            @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        Plant plant = plantService.updatePlant(id, plantRequest, userPrincipal.getId());
-        return ResponseEntity.ok(plant);
+        Plant plant = plantService.updatePlant(id, plantRequest, userPrincipal.getId(), ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.forVersion(plant.getVersion())).body(plant);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletePlant(@PathVariable String id,
+                                       @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                        @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        plantService.deletePlant(id, userPrincipal.getId());
+        plantService.deletePlant(id, userPrincipal.getId(), ETags.parseIfMatch(ifMatch));
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/{id}/care-events")
     public ResponseEntity<Plant> addCareEvent(@PathVariable String id,
                                             @Valid @RequestBody CareEventRequest careEventRequest,
+                                            @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                             @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        Plant plant = plantService.addCareEvent(id, careEventRequest, userPrincipal.getId());
-        return ResponseEntity.ok(plant);
+        Plant plant = plantService.addCareEvent(id, careEventRequest, userPrincipal.getId(),
+                ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.forVersion(plant.getVersion())).body(plant);
+    }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<CareStats> getCareStats(@PathVariable String id,
+                                                  @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(plantService.getCareStats(id, userPrincipal.getId()));
+    }
+
+    @GetMapping("/{id}/care-events")
+    public ResponseEntity<Page<CareEvent>> getCareEvents(@PathVariable String id,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size,
+                                                         @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Page<CareEvent> careEvents = plantService.getCareEvents(id, userPrincipal.getId(), page, size);
+        return ResponseEntity.ok(careEvents);
     }
 
     @GetMapping("/due-today")
-    public ResponseEntity<List<Plant>> getPlantsDueToday(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        List<Plant> plants = plantService.getPlantsDueToday(userPrincipal.getId());
-        return ResponseEntity.ok(plants);
+    public ResponseEntity<List<Plant>> getPlantsDueToday(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            WebRequest webRequest) {
+        LocalDate date = before != null ? before : LocalDate.now();
+        int pageSize = CursorPage.clampLimit(limit);
+        String etag = plantService.getPlantsDueETag(userPrincipal.getId(), date, after, pageSize);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        CursorPage<Plant> page = plantService.getPlantsDueBefore(userPrincipal.getId(), date, after, pageSize);
+        return ResponseEntity.ok().headers(page.toHeaders()).eTag(etag).body(page.getItems());
     }
-}
\ No newline at end of file
+}
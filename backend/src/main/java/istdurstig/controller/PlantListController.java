@@ -1,37 +1,58 @@
 package istdurstig.controller;
 
+import istdurstig.dto.CursorPage;
 import istdurstig.dto.PlantListRequest;
 import istdurstig.dto.ShareListRequest;
 import istdurstig.model.PlantList;
 import istdurstig.security.UserPrincipal;
+import istdurstig.service.ETags;
 import istdurstig.service.PlantListService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/plant-lists")
+@Profile("!reactive")
 public class PlantListController {
 
     @Autowired
     private PlantListService plantListService;
 
     @GetMapping
-    public ResponseEntity<List<PlantList>> getAllPlantLists(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        List<PlantList> plantLists = plantListService.getAllPlantListsForUser(userPrincipal.getId());
-        return ResponseEntity.ok(plantLists);
+    public ResponseEntity<List<PlantList>> getAllPlantLists(@RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String after,
+                                                            @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                            WebRequest webRequest) {
+        int pageSize = CursorPage.clampLimit(limit);
+        String etag = plantListService.getPlantListsETag(userPrincipal.getId(), after, pageSize);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        CursorPage<PlantList> page = plantListService.getPlantListsForUser(userPrincipal.getId(), after, pageSize);
+        return ResponseEntity.ok().headers(page.toHeaders()).eTag(etag).body(page.getItems());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PlantList> getPlantListById(@PathVariable String id,
-                                                      @AuthenticationPrincipal UserPrincipal userPrincipal) {
+                                                      @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                      WebRequest webRequest) {
+        String etag = plantListService.getPlantListETag(id, userPrincipal.getId());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         PlantList plantList = plantListService.getPlantListById(id, userPrincipal.getId());
-        return ResponseEntity.ok(plantList);
+        return ResponseEntity.ok().eTag(etag).body(plantList);
     }
 
     @PostMapping
@@ -44,47 +65,62 @@ public class PlantListController {
     @PutMapping("/{id}")
     public ResponseEntity<PlantList> updatePlantList(@PathVariable String id,
                                                      @Valid @RequestBody PlantListRequest plantListRequest,
+                                                     @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                                      @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        PlantList plantList = plantListService.updatePlantList(id, plantListRequest, userPrincipal.getId());
-        return ResponseEntity.ok(plantList);
+        PlantList plantList = plantListService.updatePlantList(id, plantListRequest, userPrincipal.getId(),
+                ETags.parseIfMatch(ifMatch));
+        return withETag(plantList);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletePlantList(@PathVariable String id,
+                                             @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                              @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        plantListService.deletePlantList(id, userPrincipal.getId());
+        plantListService.deletePlantList(id, userPrincipal.getId(), ETags.parseIfMatch(ifMatch));
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/{id}/plants/{plantId}")
     public ResponseEntity<PlantList> addPlantToList(@PathVariable String id,
                                                     @PathVariable String plantId,
+                                                    @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                                     @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        PlantList plantList = plantListService.addPlantToList(id, plantId, userPrincipal.getId());
-        return ResponseEntity.ok(plantList);
+        PlantList plantList = plantListService.addPlantToList(id, plantId, userPrincipal.getId(),
+                ETags.parseIfMatch(ifMatch));
+        return withETag(plantList);
     }
 
     @DeleteMapping("/{id}/plants/{plantId}")
     public ResponseEntity<PlantList> removePlantFromList(@PathVariable String id,
                                                          @PathVariable String plantId,
+                                                         @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                                          @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        PlantList plantList = plantListService.removePlantFromList(id, plantId, userPrincipal.getId());
-        return ResponseEntity.ok(plantList);
+        PlantList plantList = plantListService.removePlantFromList(id, plantId, userPrincipal.getId(),
+                ETags.parseIfMatch(ifMatch));
+        return withETag(plantList);
     }
 
     @PostMapping("/{id}/share")
     public ResponseEntity<PlantList> shareListWithUser(@PathVariable String id,
                                                        @Valid @RequestBody ShareListRequest shareRequest,
+                                                       @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                                        @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        PlantList plantList = plantListService.addCollaboratorByEmail(id, shareRequest.getEmail(), userPrincipal.getId());
-        return ResponseEntity.ok(plantList);
+        PlantList plantList = plantListService.addCollaboratorByEmail(id, shareRequest.getEmail(),
+                userPrincipal.getId(), ETags.parseIfMatch(ifMatch));
+        return withETag(plantList);
     }
 
     @DeleteMapping("/{id}/collaborators/{userId}")
     public ResponseEntity<PlantList> removeCollaborator(@PathVariable String id,
                                                         @PathVariable String userId,
+                                                        @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                                         @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        PlantList plantList = plantListService.removeCollaborator(id, userId, userPrincipal.getId());
-        return ResponseEntity.ok(plantList);
+        PlantList plantList = plantListService.removeCollaborator(id, userId, userPrincipal.getId(),
+                ETags.parseIfMatch(ifMatch));
+        return withETag(plantList);
+    }
+
+    private ResponseEntity<PlantList> withETag(PlantList plantList) {
+        return ResponseEntity.ok().eTag(ETags.forVersion(plantList.getVersion())).body(plantList);
     }
-}
\ No newline at end of file
+}
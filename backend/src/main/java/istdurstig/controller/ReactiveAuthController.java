@@ -0,0 +1,34 @@
+package istdurstig.controller;
+
+import istdurstig.dto.AuthResponse;
+import istdurstig.dto.LoginRequest;
+import istdurstig.dto.RegisterRequest;
+import istdurstig.service.AuthService;
+import istdurstig.service.ReactiveOffload;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+// bcrypt is CPU bound and the user lookups are blocking, so both run on the offload pool
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/auth")
+@Profile("reactive")
+public class ReactiveAuthController {
+
+    @Autowired
+    private AuthService authService;
+
+    @PostMapping("/signin")
+    public Mono<ResponseEntity<AuthResponse>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return ReactiveOffload.call(() -> authService.authenticateUser(loginRequest)).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<AuthResponse>> registerUser(@Valid @RequestBody RegisterRequest signUpRequest) {
+        return ReactiveOffload.call(() -> authService.registerUser(signUpRequest)).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,31 @@
+package istdurstig.controller;
+
+import istdurstig.dto.BulkCareEventRequest;
+import istdurstig.dto.BulkCareEventResponse;
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.PlantService;
+import istdurstig.service.ReactiveOffload;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/care-events")
+@Profile("reactive")
+public class ReactiveCareEventController {
+
+    @Autowired
+    private PlantService plantService;
+
+    @PostMapping("/bulk")
+    public Mono<ResponseEntity<BulkCareEventResponse>> addCareEventsBulk(@Valid @RequestBody BulkCareEventRequest request,
+                                                                         @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ReactiveOffload.call(() -> plantService.addCareEventsBulk(request, userPrincipal.getId()))
+                .map(ResponseEntity::ok);
+    }
+}
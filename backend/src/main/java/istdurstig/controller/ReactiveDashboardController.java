@@ -0,0 +1,30 @@
+package istdurstig.controller;
+
+import istdurstig.dto.DashboardResponse;
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.DashboardService;
+import istdurstig.service.ReactiveOffload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/dashboard")
+@Profile("reactive")
+public class ReactiveDashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @GetMapping
+    public Mono<ResponseEntity<DashboardResponse>> getDashboard(@RequestParam(defaultValue = "5") int top,
+                                                                @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        int clamped = Math.max(1, Math.min(top, 50));
+        return ReactiveOffload.call(() -> dashboardService.getDashboard(userPrincipal.getId(), clamped))
+                .map(ResponseEntity::ok);
+    }
+}
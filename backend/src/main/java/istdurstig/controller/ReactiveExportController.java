@@ -0,0 +1,54 @@
+package istdurstig.controller;
+
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/export")
+@Profile("reactive")
+public class ReactiveExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // The blocking export runs on boundedElastic and only writes as fast as the client reads
+    @GetMapping
+    public ResponseEntity<Flux<DataBuffer>> export(@RequestParam(defaultValue = "false") boolean gzip,
+                                                   @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                   ServerHttpResponse response) {
+        String userId = userPrincipal.getId();
+        Flux<DataBuffer> body = Flux.from(DataBufferUtils.outputStreamPublisher(out -> {
+            try {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                    exportService.export(userId, compressed);
+                    compressed.finish();
+                } else {
+                    exportService.export(userId, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, response.bufferFactory(), task -> Schedulers.boundedElastic().schedule(task)));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ExportController.attachment(gzip).toString())
+                .contentType(gzip ? ExportController.GZIP : ExportController.NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,80 @@
+package istdurstig.controller;
+
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/import")
+@Profile("reactive")
+public class ReactiveImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    // The body is spooled to a temporary file without blocking, then imported on boundedElastic
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    public ResponseEntity<Flux<DataBuffer>> importPlants(@RequestParam(required = false) String listId,
+                                                         @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                         ServerHttpRequest request,
+                                                         ServerHttpResponse response) {
+        String userId = userPrincipal.getId();
+        long maxBytes = importService.getMaxBytes();
+        if (request.getHeaders().getContentLength() > maxBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Import larger than " + maxBytes + " bytes");
+        }
+        ImportService.Format format = ImportService.Format.of(request.getHeaders().getContentType());
+        // The spool is capped as well, so a body without a length cannot fill the disk
+        AtomicLong spooled = new AtomicLong();
+        Flux<DataBuffer> upload = request.getBody().handle((buffer, sink) -> {
+            if (spooled.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                DataBufferUtils.release(buffer);
+                sink.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Import larger than " + maxBytes + " bytes"));
+            } else {
+                sink.next(buffer);
+            }
+        });
+        Flux<DataBuffer> body = Mono.fromCallable(() -> Files.createTempFile("istdurstig-import-", ".upload"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(file -> DataBufferUtils.write(upload, file)
+                        .thenMany(DataBufferUtils.outputStreamPublisher(out -> {
+                            try (InputStream in = Files.newInputStream(file)) {
+                                importService.importPlants(userId, in, format, listId, out);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }, response.bufferFactory(), task -> Schedulers.boundedElastic().schedule(task)))
+                        .doFinally(signal -> delete(file)));
+        return ResponseEntity.ok().contentType(ExportController.NDJSON).body(body);
+    }
+
+    private static void delete(Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException e) {
+            upload.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package istdurstig.controller;
+
+import istdurstig.dto.PhotoResponse;
+import istdurstig.service.PhotoService;
+import istdurstig.service.ReactiveOffload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/photos")
+@Profile("reactive")
+public class ReactivePhotoController {
+
+    @Autowired
+    private PhotoService photoService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<PhotoResponse>> uploadPhoto(@RequestPart("file") FilePart file) {
+        MediaType contentType = file.headers().getContentType();
+        if (contentType == null || !PhotoService.isAllowedType(contentType.toString())) {
+            return Mono.error(new RuntimeException("Photo must be a PNG, JPEG, WebP or GIF image"));
+        }
+
+        return DataBufferUtils.join(file.content())
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .flatMap(bytes -> ReactiveOffload.call(() -> photoService.storePhoto(bytes, contentType.toString())))
+                .map(id -> ResponseEntity.ok(new PhotoResponse(id, PhotoService.PHOTO_URL_PREFIX + id)));
+    }
+
+    // Photos are capped at upload, so they are read fully off the event loop and served from memory with Range support
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Resource>> getPhoto(@PathVariable String id, ServerWebExchange exchange) {
+        String etag = "\"" + id + "\"";
+        if (exchange.checkNotModified(etag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Resource>build());
+        }
+
+        return ReactiveOffload.call(() -> {
+            GridFsResource photo = photoService.getPhoto(id);
+            try (InputStream in = photo.getInputStream()) {
+                return ResponseEntity.ok()
+                        .eTag(etag)
+                        .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                        .header(PhotoController.NOSNIFF, "nosniff")
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                PhotoController.disposition(photo.getContentType()).toString())
+                        .contentType(PhotoService.servedContentType(photo.getContentType()))
+                        .<Resource>body(new ByteArrayResource(in.readAllBytes()));
+            }
+        });
+    }
+}
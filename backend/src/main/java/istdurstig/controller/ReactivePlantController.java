@@ -0,0 +1,137 @@
+package istdurstig.controller;
+
+import istdurstig.dto.CareEventRequest;
+import istdurstig.dto.CursorPage;
+import istdurstig.dto.PlantRequest;
+import istdurstig.dto.PlantSummary;
+import istdurstig.model.CareEvent;
+import istdurstig.model.CareStats;
+import istdurstig.model.Plant;
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.ETags;
+import istdurstig.service.PlantService;
+import istdurstig.service.ReactiveOffload;
+import istdurstig.service.ReactivePlantService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/plants")
+@Profile("reactive")
+public class ReactivePlantController {
+
+    @Autowired
+    private ReactivePlantService reactivePlantService;
+
+    @Autowired
+    private PlantService plantService;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<PlantSummary>>> getAllPlants(@RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) String after,
+                                                                 @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                                 ServerWebExchange exchange) {
+        int pageSize = CursorPage.clampLimit(limit);
+        return conditional(reactivePlantService.getPlantSummariesETag(userPrincipal.getId(), after, pageSize), exchange,
+                etag -> reactivePlantService.getPlantSummariesForUser(userPrincipal.getId(), after, pageSize)
+                        .map(page -> ResponseEntity.ok().headers(page.toHeaders()).eTag(etag).body(page.getItems())));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Plant>> getPlantById(@PathVariable String id,
+                                                    @RequestParam(required = false) Integer history,
+                                                    @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                    ServerWebExchange exchange) {
+        Integer historySize = history != null ? Math.max(0, history) : null;
+        return conditional(reactivePlantService.getPlantETag(id, userPrincipal.getId(), historySize), exchange,
+                etag -> (historySize != null
+                        ? reactivePlantService.getPlantById(id, userPrincipal.getId(), historySize)
+                        : reactivePlantService.getPlantById(id, userPrincipal.getId()))
+                        .map(plant -> ResponseEntity.ok().eTag(etag).body(plant)));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Plant>> createPlant(@Valid @RequestBody PlantRequest plantRequest,
+                                                   @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ReactiveOffload.call(() -> plantService.createPlant(plantRequest, userPrincipal.getId()))
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Plant>> updatePlant(@PathVariable String id,
+                                                   @Valid @RequestBody PlantRequest plantRequest,
+                                                   @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                   @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        return ReactiveOffload.call(() -> plantService.updatePlant(id, plantRequest, userPrincipal.getId(), expectedVersion))
+                .map(plant -> ResponseEntity.ok().eTag(ETags.forVersion(plant.getVersion())).body(plant));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletePlant(@PathVariable String id,
+                                                  @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                  @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        return ReactiveOffload.run(() -> plantService.deletePlant(id, userPrincipal.getId(), expectedVersion))
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+    }
+
+    @PostMapping("/{id}/care-events")
+    public Mono<ResponseEntity<Plant>> addCareEvent(@PathVariable String id,
+                                                    @Valid @RequestBody CareEventRequest careEventRequest,
+                                                    @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                    @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return reactivePlantService.addCareEvent(id, careEventRequest, userPrincipal.getId(), ETags.parseIfMatch(ifMatch))
+                .map(plant -> ResponseEntity.ok().eTag(ETags.forVersion(plant.getVersion())).body(plant));
+    }
+
+    @GetMapping("/{id}/stats")
+    public Mono<ResponseEntity<CareStats>> getCareStats(@PathVariable String id,
+                                                        @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return reactivePlantService.getCareStats(id, userPrincipal.getId()).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}/care-events")
+    public Mono<ResponseEntity<Page<CareEvent>>> getCareEvents(@PathVariable String id,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "20") int size,
+                                                               @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ReactiveOffload.call(() -> plantService.getCareEvents(id, userPrincipal.getId(), page, size))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/due-today")
+    public Mono<ResponseEntity<List<Plant>>> getPlantsDueToday(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            ServerWebExchange exchange) {
+        LocalDate date = before != null ? before : LocalDate.now();
+        int pageSize = CursorPage.clampLimit(limit);
+        return conditional(reactivePlantService.getPlantsDueETag(userPrincipal.getId(), date, after, pageSize), exchange,
+                etag -> reactivePlantService.getPlantsDueBefore(userPrincipal.getId(), date, after, pageSize)
+                        .map(page -> ResponseEntity.ok().headers(page.toHeaders()).eTag(etag).body(page.getItems())));
+    }
+
+    private <T> Mono<ResponseEntity<T>> conditional(Mono<String> etag, ServerWebExchange exchange,
+                                                    Function<String, Mono<ResponseEntity<T>>> body) {
+        return etag.flatMap(tag -> exchange.checkNotModified(tag)
+                ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).<T>build())
+                : body.apply(tag));
+    }
+}
@@ -0,0 +1,133 @@
+package istdurstig.controller;
+
+import istdurstig.dto.CursorPage;
+import istdurstig.dto.PlantListRequest;
+import istdurstig.dto.ShareListRequest;
+import istdurstig.model.PlantList;
+import istdurstig.security.UserPrincipal;
+import istdurstig.service.ETags;
+import istdurstig.service.PlantListService;
+import istdurstig.service.ReactiveOffload;
+import istdurstig.service.ReactivePlantListService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/plant-lists")
+@Profile("reactive")
+public class ReactivePlantListController {
+
+    @Autowired
+    private ReactivePlantListService reactivePlantListService;
+
+    @Autowired
+    private PlantListService plantListService;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<PlantList>>> getAllPlantLists(@RequestParam(required = false) Integer limit,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                                  ServerWebExchange exchange) {
+        int pageSize = CursorPage.clampLimit(limit);
+        return conditional(reactivePlantListService.getPlantListsETag(userPrincipal.getId(), after, pageSize), exchange,
+                etag -> reactivePlantListService.getPlantListsForUser(userPrincipal.getId(), after, pageSize)
+                        .map(page -> ResponseEntity.ok().headers(page.toHeaders()).eTag(etag).body(page.getItems())));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PlantList>> getPlantListById(@PathVariable String id,
+                                                            @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                            ServerWebExchange exchange) {
+        return conditional(reactivePlantListService.getPlantListETag(id, userPrincipal.getId()), exchange,
+                etag -> reactivePlantListService.getPlantListById(id, userPrincipal.getId())
+                        .map(plantList -> ResponseEntity.ok().eTag(etag).body(plantList)));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<PlantList>> createPlantList(@Valid @RequestBody PlantListRequest plantListRequest,
+                                                           @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ReactiveOffload.call(() -> plantListService.createPlantList(plantListRequest, userPrincipal.getId()))
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<PlantList>> updatePlantList(@PathVariable String id,
+                                                           @Valid @RequestBody PlantListRequest plantListRequest,
+                                                           @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                           @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        return withETag(() -> plantListService.updatePlantList(id, plantListRequest, userPrincipal.getId(),
+                expectedVersion));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletePlantList(@PathVariable String id,
+                                                      @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                      @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        return ReactiveOffload.run(() -> plantListService.deletePlantList(id, userPrincipal.getId(), expectedVersion))
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+    }
+
+    @PostMapping("/{id}/plants/{plantId}")
+    public Mono<ResponseEntity<PlantList>> addPlantToList(@PathVariable String id,
+                                                          @PathVariable String plantId,
+                                                          @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                          @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        return withETag(() -> plantListService.addPlantToList(id, plantId, userPrincipal.getId(), expectedVersion));
+    }
+
+    @DeleteMapping("/{id}/plants/{plantId}")
+    public Mono<ResponseEntity<PlantList>> removePlantFromList(@PathVariable String id,
+                                                               @PathVariable String plantId,
+                                                               @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                               @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        return withETag(() -> plantListService.removePlantFromList(id, plantId, userPrincipal.getId(),
+                expectedVersion));
+    }
+
+    @PostMapping("/{id}/share")
+    public Mono<ResponseEntity<PlantList>> shareListWithUser(@PathVariable String id,
+                                                             @Valid @RequestBody ShareListRequest shareRequest,
+                                                             @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                             @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        return withETag(() -> plantListService.addCollaboratorByEmail(id, shareRequest.getEmail(),
+                userPrincipal.getId(), expectedVersion));
+    }
+
+    @DeleteMapping("/{id}/collaborators/{userId}")
+    public Mono<ResponseEntity<PlantList>> removeCollaborator(@PathVariable String id,
+                                                              @PathVariable String userId,
+                                                              @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                              @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        return withETag(() -> plantListService.removeCollaborator(id, userId, userPrincipal.getId(), expectedVersion));
+    }
+
+    private Mono<ResponseEntity<PlantList>> withETag(Callable<PlantList> mutation) {
+        return ReactiveOffload.call(mutation)
+                .map(plantList -> ResponseEntity.ok().eTag(ETags.forVersion(plantList.getVersion())).body(plantList));
+    }
+
+    private <T> Mono<ResponseEntity<T>> conditional(Mono<String> etag, ServerWebExchange exchange,
+                                                    Function<String, Mono<ResponseEntity<T>>> body) {
+        return etag.flatMap(tag -> exchange.checkNotModified(tag)
+                ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).<T>build())
+                : body.apply(tag));
+    }
+}
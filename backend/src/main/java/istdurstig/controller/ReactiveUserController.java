@@ -0,0 +1,39 @@
+package istdurstig.controller;
+
+import istdurstig.dto.UserSummary;
+import istdurstig.service.ReactiveOffload;
+import istdurstig.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/users")
+@Profile("reactive")
+public class ReactiveUserController {
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<UserSummary>>> searchUsersByEmail(@RequestParam String email,
+                                                                      @RequestParam(defaultValue = "10") int limit) {
+        int clamped = Math.max(1, Math.min(limit, UserService.MAX_SEARCH_RESULTS));
+        return ReactiveOffload.call(() -> userService.searchUsersByEmailPrefix(email, clamped))
+                .map(users -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePrivate())
+                        .body(users));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserSummary>> getUserById(@PathVariable String id) {
+        return ReactiveOffload.call(() -> userService.getUserSummary(id)).map(ResponseEntity::ok);
+    }
+}
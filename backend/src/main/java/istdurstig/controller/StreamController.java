@@ -0,0 +1,38 @@
+package istdurstig.controller;
+
+import istdurstig.dto.StreamTokenResponse;
+import istdurstig.security.JwtUtils;
+import istdurstig.security.UserPrincipal;
+import istdurstig.stream.ChangeStreamHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/stream")
+@Profile("!reactive")
+public class StreamController {
+
+    @Autowired
+    private ChangeStreamHub changeStreamHub;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    // A browser EventSource cannot set the Authorization header; it opens /api/stream?access_token=<token> instead
+    @PostMapping("/token")
+    public ResponseEntity<StreamTokenResponse> streamToken(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(new StreamTokenResponse(jwtUtils.generateStreamToken(userPrincipal.getId()),
+                jwtUtils.getStreamTokenExpirationMs()));
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return changeStreamHub.subscribe(userPrincipal.getId());
+    }
+}
@@ -1,30 +1,37 @@
 package istdurstig.controller;
 
-import istdurstig.model.User;
+import istdurstig.dto.UserSummary;
 import istdurstig.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/users")
+@Profile("!reactive")
 public class UserController {
 
     @Autowired
     private UserService userService;
 
+    // Results are short-lived and per user, so the browser may reuse them while the prefix is retyped
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsersByEmail(@RequestParam String email) {
-        List<User> users = userService.searchUsersByEmail(email);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserSummary>> searchUsersByEmail(@RequestParam String email,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        List<UserSummary> users = userService.searchUsersByEmailPrefix(email,
+                Math.max(1, Math.min(limit, UserService.MAX_SEARCH_RESULTS)));
+        return ResponseEntity.ok().cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePrivate()).body(users);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable String id) {
-        User user = userService.getUserById(id);
+    public ResponseEntity<UserSummary> getUserById(@PathVariable String id) {
+        UserSummary user = userService.getUserSummary(id);
         return ResponseEntity.ok(user);
     }
 }
\ No newline at end of file
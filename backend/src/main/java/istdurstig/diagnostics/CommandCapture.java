@@ -0,0 +1,35 @@
+package istdurstig.diagnostics;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records the commands the current thread sends while a capture is open. The blocking driver notifies listeners
+// on the calling thread, so QueryPlanCheck sees exactly what a repository method generated
+public class CommandCapture implements CommandListener {
+
+    private final ThreadLocal<List<BsonDocument>> captured = new ThreadLocal<>();
+
+    public List<BsonDocument> capture(Runnable action) {
+        List<BsonDocument> commands = new ArrayList<>();
+        captured.set(commands);
+        try {
+            action.run();
+        } finally {
+            captured.remove();
+        }
+        return commands;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        List<BsonDocument> commands = captured.get();
+        if (commands != null) {
+            // The event's document is backed by a pooled buffer that is released after the command is sent
+            commands.add(event.getCommand().clone());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package istdurstig.diagnostics;
+
+import istdurstig.dto.CursorPage;
+import istdurstig.model.CareEvent;
+import istdurstig.model.Plant;
+import istdurstig.model.PlantList;
+import istdurstig.model.User;
+import istdurstig.repository.CareEventRepository;
+import istdurstig.repository.PlantListRepository;
+import istdurstig.repository.PlantRepository;
+import istdurstig.repository.UserRepository;
+import istdurstig.service.DashboardService;
+import istdurstig.service.ExportService;
+import istdurstig.service.PhotoService;
+import istdurstig.service.PlantListService;
+import istdurstig.service.PlantService;
+import istdurstig.service.UserService;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Query-plan regression check, meant for CI against a real MongoDB (app.indexes.explain-check=true).
+ * Every query shape the repositories and services send is explained, and startup fails if any winning plan
+ * contains a COLLSCAN, so a query added without a matching index in IndexCatalog is caught before it ships.
+ * Service queries and pipelines come from the static builders the services themselves use. Repository methods
+ * are called with sample arguments and the commands they send are captured, so nothing is restated here.
+ * Each $lookup is additionally probed as the equality match it runs against the joined collection.
+ */
+@Component
+@ConditionalOnProperty(name = "app.indexes.explain-check", havingValue = "true")
+public class QueryPlanCheck implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanCheck.class);
+
+    private static final String SAMPLE_ID = "000000000000000000000000";
+
+    // Commands that can be explained; captured writes and handshakes are skipped
+    private static final Set<String> READ_COMMANDS = Set.of("find", "count", "aggregate", "distinct");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CommandCapture commandCapture;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlantListRepository plantListRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private CareEventRepository careEventRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> collectionScans = new ArrayList<>();
+        Map<String, Bson> probes = probes(collectionScans);
+        for (Map.Entry<String, Bson> probe : probes.entrySet()) {
+            Document explained = explain(probe.getValue());
+            logger.info("{}: {}", probe.getKey(), explained.toJson());
+            if (containsStage(explained, "COLLSCAN")) {
+                collectionScans.add(probe.getKey());
+            }
+        }
+
+        if (!collectionScans.isEmpty()) {
+            throw new RuntimeException("Queries falling back to a collection scan: " + String.join(", ", collectionScans));
+        }
+        logger.info("Explained {} queries, none uses a collection scan", probes.size());
+    }
+
+    private Map<String, Bson> probes(List<String> collectionScans) {
+        List<String> ids = List.of(SAMPLE_ID, "000000000000000000000001");
+        String cursor = CursorPage.encodeCursor(SAMPLE_ID);
+        LocalDate today = LocalDate.now();
+
+        Map<String, Bson> probes = new LinkedHashMap<>();
+        probes.put("UserService.prefixQuery", find(User.class, UserService.prefixQuery("some")));
+
+        probes.put("PlantListService.pageQuery", find(PlantList.class,
+                PlantListService.pageQuery(SAMPLE_ID, null, CursorPage.DEFAULT_LIMIT)));
+        probes.put("PlantListService.pageQuery (after cursor)", find(PlantList.class,
+                PlantListService.pageQuery(SAMPLE_ID, cursor, CursorPage.DEFAULT_LIMIT)));
+        probes.put("PlantListService.memberOf", find(PlantList.class, PlantListService.memberOf(SAMPLE_ID, SAMPLE_ID)));
+        probes.put("PlantService.listsContaining", find(PlantList.class, PlantService.listsContaining(SAMPLE_ID)));
+
+        probes.put("PlantService.summaryQuery", find(Plant.class, PlantService.summaryQuery(ids)));
+        probes.put("PlantService.versionQuery", find(Plant.class, PlantService.versionQuery(ids)));
+        probes.put("PlantService.plantQuery", find(Plant.class, PlantService.plantQuery(SAMPLE_ID, 5)));
+        probes.put("PlantService.dueQuery", find(Plant.class, PlantService.dueQuery(ids, today)));
+        probes.put("PlantService.statsQuery", find(Plant.class, PlantService.statsQuery(SAMPLE_ID)));
+        probes.put("PlantService.historyQuery", find(CareEvent.class, PlantService.historyQuery(SAMPLE_ID, 50)));
+
+        probes.put("ExportService.listsQuery", find(PlantList.class, ExportService.listsQuery(SAMPLE_ID, 100)));
+        probes.put("ExportService.plantsQuery", find(Plant.class, ExportService.plantsQuery(ids, 100)));
+        probes.put("ExportService.careEventsQuery", find(CareEvent.class, ExportService.careEventsQuery(ids, 100)));
+        probes.put("PhotoService.byHash", new Document("find", "fs.files")
+                .append("filter", PhotoService.byHash("sample").getQueryObject()));
+
+        capture(probes, "UserRepository.findByEmail", () -> userRepository.findByEmail("someone@example.com"));
+        capture(probes, "UserRepository.existsByEmail", () -> userRepository.existsByEmail("someone@example.com"));
+        capture(probes, "PlantListRepository.findByOwnerId", () -> plantListRepository.findByOwnerId(SAMPLE_ID));
+        capture(probes, "PlantListRepository.findByOwnerIdOrCollaboratorIdsContaining",
+                () -> plantListRepository.findByOwnerIdOrCollaboratorIdsContaining(SAMPLE_ID));
+        capture(probes, "PlantRepository.findByIdIn", () -> plantRepository.findByIdIn(ids));
+        capture(probes, "PlantRepository.findPlantsNeedingWater",
+                () -> plantRepository.findPlantsNeedingWater(ids, today));
+        capture(probes, "CareEventRepository.findByPlantIdOrderByTimestampDesc",
+                () -> careEventRepository.findByPlantIdOrderByTimestampDesc(SAMPLE_ID, PageRequest.of(0, 20)));
+        capture(probes, "CareEventRepository.countByPlantId", () -> careEventRepository.countByPlantId(SAMPLE_ID));
+
+        aggregate(probes, collectionScans, "DashboardService.pipeline", "plant_lists",
+                DashboardService.pipeline(SAMPLE_ID, 5, today));
+        // PhotoService.removeDuplicateFiles groups all of fs.files on purpose; it only runs while the unique
+        // filename index is first built
+        return probes;
+    }
+
+    // Maps the query exactly as MongoTemplate would send it, after field and id mapping
+    private Document find(Class<?> entityClass, Query query) {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(entityClass);
+
+        Document find = new Document("find", entity.getCollection())
+                .append("filter", queryMapper.getMappedObject(query.getQueryObject(), entity));
+        if (!query.getSortObject().isEmpty()) {
+            find.append("sort", queryMapper.getMappedSort(query.getSortObject(), entity));
+        }
+        if (!query.getFieldsObject().isEmpty()) {
+            find.append("projection", queryMapper.getMappedFields(query.getFieldsObject(), entity));
+        }
+        if (query.getLimit() > 0) {
+            find.append("limit", query.getLimit());
+        }
+        return find;
+    }
+
+    // Runs the repository method and keeps every read it sent, without the session and routing fields
+    private void capture(Map<String, Bson> probes, String name, Runnable call) {
+        List<BsonDocument> commands = commandCapture.capture(call).stream()
+                .filter(command -> READ_COMMANDS.contains(command.getFirstKey()))
+                .toList();
+        if (commands.isEmpty()) {
+            throw new RuntimeException(name + " sent no query to explain");
+        }
+        for (int i = 0; i < commands.size(); i++) {
+            BsonDocument command = commands.get(i).clone();
+            command.keySet().removeIf(key -> key.startsWith("$") || key.equals("lsid") || key.equals("txnNumber"));
+            probes.put(commands.size() == 1 ? name : name + " #" + (i + 1), command);
+        }
+    }
+
+    // The pipeline is explained as sent; a $lookup only shows its own plan at run time, so the equality match it
+    // performs on the joined collection is explained as a separate find
+    private void aggregate(Map<String, Bson> probes, List<String> collectionScans, String name, String collection,
+                           List<Document> pipeline) {
+        probes.put(name, new Document("aggregate", collection)
+                .append("pipeline", pipeline)
+                .append("cursor", new Document()));
+        for (Document lookup : lookups(pipeline)) {
+            String foreignField = lookup.getString("foreignField");
+            String probe = name + " $lookup " + lookup.getString("from");
+            if (foreignField == null) {
+                // A correlated sub-pipeline has no equality join to probe and cannot use an index for $in
+                collectionScans.add(probe + " (no localField/foreignField)");
+                continue;
+            }
+            Object sample = "_id".equals(foreignField) ? new ObjectId(SAMPLE_ID) : SAMPLE_ID;
+            probes.put(probe, new Document("find", lookup.getString("from"))
+                    .append("filter", new Document(foreignField, sample)));
+        }
+    }
+
+    private static List<Document> lookups(List<?> pipeline) {
+        List<Document> lookups = new ArrayList<>();
+        for (Object stage : pipeline) {
+            if (!(stage instanceof Document document)) {
+                continue;
+            }
+            if (document.get("$lookup") instanceof Document lookup) {
+                lookups.add(lookup);
+            }
+            if (document.get("$facet") instanceof Document facet) {
+                facet.values().forEach(subPipeline -> lookups.addAll(lookups((List<?>) subPipeline)));
+            }
+        }
+        return lookups;
+    }
+
+    private Document explain(Bson command) {
+        return mongoTemplate.getDb().runCommand(new Document("explain", command).append("verbosity", "queryPlanner"));
+    }
+
+    // Walks nested stages, the SBE queryPlan wrapper and aggregation $cursor stages looking for the stage;
+    // rejected plans are not what the server runs and are skipped
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.entrySet().stream()
+                    .filter(entry -> !"rejectedPlans".equals(entry.getKey()))
+                    .anyMatch(entry -> containsStage(entry.getValue(), stage));
+        }
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+}
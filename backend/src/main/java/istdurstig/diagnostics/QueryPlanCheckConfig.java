@@ -0,0 +1,22 @@
+package istdurstig.diagnostics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Only registered for the explain check, so regular runs do not pay for the extra listener
+@Configuration
+@ConditionalOnProperty(name = "app.indexes.explain-check", havingValue = "true")
+public class QueryPlanCheckConfig {
+
+    @Bean
+    public CommandCapture commandCapture() {
+        return new CommandCapture();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer commandCaptureCustomizer(CommandCapture commandCapture) {
+        return settings -> settings.addCommandListener(commandCapture);
+    }
+}
@@ -0,0 +1,28 @@
+package istdurstig.dto;
+
+import lombok.Data;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Data
+public class BulkCareEventRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<Item> items;
+
+    @Data
+    public static class Item {
+        @NotBlank
+        private String plantId;
+
+        @NotNull
+        @Valid
+        private CareEventRequest event;
+    }
+}
@@ -0,0 +1,31 @@
+package istdurstig.dto;
+
+import istdurstig.model.Plant;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class DashboardResponse {
+    private List<ListSummary> lists = new ArrayList<>();
+    private long totalPlants;
+    // Plants /api/plants/due-today would return, including never-watered ones
+    private long dueCount;
+    // Plants whose next watering date has already passed
+    private long overdueCount;
+    private long recentlyWateredCount;
+    private List<Plant> mostOverdue = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class ListSummary {
+        private String id;
+        private String name;
+        private String description;
+        private String ownerId;
+        private int plantCount;
+    }
+}
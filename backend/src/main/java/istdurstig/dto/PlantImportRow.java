@@ -0,0 +1,12 @@
+package istdurstig.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+// One row of a plant import: the PlantRequest fields plus the list the plant is added to
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PlantImportRow extends PlantRequest {
+    // Falls back to the listId request parameter when empty
+    private String listId;
+}
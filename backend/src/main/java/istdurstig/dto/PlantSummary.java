@@ -0,0 +1,25 @@
+package istdurstig.dto;
+
+import istdurstig.model.CareEvent;
+import istdurstig.model.Schedule;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+// Read-only view of a plant with just what the plant cards render; careHistory holds only the latest event
+@Data
+@NoArgsConstructor
+public class PlantSummary {
+    private String id;
+    private String name;
+    private String type;
+    private Set<String> tags;
+    private String notes;
+    private String photoUrl;
+    private Schedule schedule;
+    private LocalDate nextWateringDate;
+    private List<CareEvent> careHistory;
+}
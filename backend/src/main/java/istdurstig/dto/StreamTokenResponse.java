@@ -0,0 +1,11 @@
+package istdurstig.dto;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+@Data
+@AllArgsConstructor
+public class StreamTokenResponse {
+    private String token;
+    private long expiresInMs;
+}
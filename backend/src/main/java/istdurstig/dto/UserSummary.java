@@ -0,0 +1,15 @@
+package istdurstig.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private String id;
+    private String email;
+    private String firstName;
+    private String lastName;
+}
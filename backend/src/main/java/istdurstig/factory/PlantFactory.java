@@ -31,6 +31,7 @@ public class PlantFactory {
         } else {
             existing.setSchedule(new Schedule(request.getFrequency(), null));
         }
+        existing.refreshNextWateringDate();
         return existing;
     }
 }
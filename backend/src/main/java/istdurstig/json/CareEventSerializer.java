@@ -0,0 +1,54 @@
+package istdurstig.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import istdurstig.model.CareEvent;
+import istdurstig.model.FertilizingEvent;
+import istdurstig.model.TransplantEvent;
+import istdurstig.model.WateringEvent;
+
+import java.io.IOException;
+
+/**
+ * Writes care events field by field. The human readable summary is string concatenation per event, so it is
+ * only written when the client asked for it with ?summaries=true, which sets SUMMARIES_ATTRIBUTE on the writer.
+ */
+public class CareEventSerializer extends StdSerializer<CareEvent> {
+
+    public static final String SUMMARIES_PARAM = "summaries";
+    public static final String SUMMARIES_ATTRIBUTE = "istdurstig.careEventSummaries";
+
+    public CareEventSerializer() {
+        super(CareEvent.class);
+    }
+
+    public static boolean summariesRequested(String paramValue) {
+        return Boolean.parseBoolean(paramValue);
+    }
+
+    @Override
+    public void serialize(CareEvent event, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(event);
+        gen.writeStringField("id", event.getId());
+        gen.writeStringField("plantId", event.getPlantId());
+        gen.writeStringField("type", event.getType() != null ? event.getType().name() : null);
+        provider.defaultSerializeField("timestamp", event.getTimestamp(), gen);
+        gen.writeStringField("notes", event.getNotes());
+        gen.writeStringField("userId", event.getUserId());
+
+        if (event instanceof WateringEvent watering) {
+            gen.writeNumberField("amountLiters", watering.getAmountLiters());
+        } else if (event instanceof FertilizingEvent fertilizing) {
+            gen.writeStringField("fertilizerType", fertilizing.getFertilizerType());
+        } else if (event instanceof TransplantEvent transplant) {
+            gen.writeStringField("newPotSize", transplant.getNewPotSize());
+            gen.writeStringField("soilType", transplant.getSoilType());
+        }
+
+        if (Boolean.TRUE.equals(provider.getAttribute(SUMMARIES_ATTRIBUTE))) {
+            gen.writeStringField("summary", event.getSummary());
+        }
+        gen.writeEndObject();
+    }
+}
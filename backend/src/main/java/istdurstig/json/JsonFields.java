@@ -0,0 +1,32 @@
+package istdurstig.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Collection;
+
+final class JsonFields {
+
+    private JsonFields() {
+    }
+
+    static void writeNumber(JsonGenerator gen, String name, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+
+    static void writeStrings(JsonGenerator gen, String name, Collection<String> values) throws IOException {
+        if (values == null) {
+            gen.writeNullField(name);
+            return;
+        }
+        gen.writeArrayFieldStart(name);
+        for (String value : values) {
+            gen.writeString(value);
+        }
+        gen.writeEndArray();
+    }
+}
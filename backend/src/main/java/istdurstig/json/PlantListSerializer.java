@@ -0,0 +1,30 @@
+package istdurstig.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import istdurstig.model.PlantList;
+
+import java.io.IOException;
+
+public class PlantListSerializer extends StdSerializer<PlantList> {
+
+    public PlantListSerializer() {
+        super(PlantList.class);
+    }
+
+    @Override
+    public void serialize(PlantList plantList, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(plantList);
+        gen.writeStringField("id", plantList.getId());
+        JsonFields.writeNumber(gen, "version", plantList.getVersion());
+        gen.writeStringField("name", plantList.getName());
+        gen.writeStringField("description", plantList.getDescription());
+        gen.writeStringField("ownerId", plantList.getOwnerId());
+        JsonFields.writeStrings(gen, "collaboratorIds", plantList.getCollaboratorIds());
+        JsonFields.writeStrings(gen, "plantIds", plantList.getPlantIds());
+        provider.defaultSerializeField("createdAt", plantList.getCreatedAt(), gen);
+        provider.defaultSerializeField("updatedAt", plantList.getUpdatedAt(), gen);
+        gen.writeEndObject();
+    }
+}
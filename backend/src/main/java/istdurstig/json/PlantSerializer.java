@@ -0,0 +1,48 @@
+package istdurstig.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import istdurstig.model.CareEvent;
+import istdurstig.model.Plant;
+
+import java.io.IOException;
+
+// Dates, the schedule and the care stats go through the configured serializers so their format matches the rest of the API
+public class PlantSerializer extends StdSerializer<Plant> {
+
+    private final CareEventSerializer careEventSerializer = new CareEventSerializer();
+
+    public PlantSerializer() {
+        super(Plant.class);
+    }
+
+    @Override
+    public void serialize(Plant plant, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(plant);
+        gen.writeStringField("id", plant.getId());
+        JsonFields.writeNumber(gen, "version", plant.getVersion());
+        gen.writeStringField("name", plant.getName());
+        gen.writeStringField("type", plant.getType());
+        JsonFields.writeStrings(gen, "tags", plant.getTags());
+        gen.writeStringField("notes", plant.getNotes());
+        gen.writeStringField("photoUrl", plant.getPhotoUrl());
+        provider.defaultSerializeField("schedule", plant.getSchedule(), gen);
+        provider.defaultSerializeField("nextWateringDate", plant.getNextWateringDate(), gen);
+
+        if (plant.getCareHistory() == null) {
+            gen.writeNullField("careHistory");
+        } else {
+            gen.writeArrayFieldStart("careHistory");
+            for (CareEvent event : plant.getCareHistory()) {
+                careEventSerializer.serialize(event, gen, provider);
+            }
+            gen.writeEndArray();
+        }
+
+        provider.defaultSerializeField("careStats", plant.getCareStats(), gen);
+        provider.defaultSerializeField("createdAt", plant.getCreatedAt(), gen);
+        provider.defaultSerializeField("updatedAt", plant.getUpdatedAt(), gen);
+        gen.writeEndObject();
+    }
+}
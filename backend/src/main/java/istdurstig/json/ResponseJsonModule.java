@@ -0,0 +1,24 @@
+package istdurstig.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import istdurstig.model.CareEvent;
+import istdurstig.model.FertilizingEvent;
+import istdurstig.model.Plant;
+import istdurstig.model.PlantList;
+import istdurstig.model.TransplantEvent;
+import istdurstig.model.WateringEvent;
+
+// Streaming serializers for the largest response bodies; registered with the application's ObjectMapper by JacksonConfig
+public class ResponseJsonModule extends SimpleModule {
+
+    public ResponseJsonModule() {
+        super("ResponseJsonModule");
+        CareEventSerializer careEventSerializer = new CareEventSerializer();
+        addSerializer(CareEvent.class, careEventSerializer);
+        addSerializer(WateringEvent.class, careEventSerializer);
+        addSerializer(FertilizingEvent.class, careEventSerializer);
+        addSerializer(TransplantEvent.class, careEventSerializer);
+        addSerializer(Plant.class, new PlantSerializer());
+        addSerializer(PlantList.class, new PlantListSerializer());
+    }
+}
@@ -0,0 +1,45 @@
+package istdurstig.migration;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+// Care events written before CareEventConverters carry a full _class name; drop it server side, the type field is enough.
+// Both updates scan their collection, so this runs once, before the web server accepts requests, and is then skipped
+@Component
+@ConditionalOnProperty(name = "app.migrations.care-event-encoding", havingValue = "true", matchIfMissing = true)
+public class CareEventEncodingMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CareEventEncodingMigration.class);
+
+    private static final String NAME = "care-event-encoding";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationLog migrationLog;
+
+    @PostConstruct
+    public void run() {
+        if (migrationLog.isDone(NAME)) {
+            return;
+        }
+
+        long careEvents = mongoTemplate.getCollection("care_events")
+                .updateMany(Filters.exists("_class"), Updates.unset("_class"))
+                .getModifiedCount();
+        // Raw driver update, so the all-positional path reaches the server untouched by the update mapper
+        long plants = mongoTemplate.getCollection("plants")
+                .updateMany(Filters.exists("careHistory._class"), Updates.unset("careHistory.$[]._class"))
+                .getModifiedCount();
+        migrationLog.markDone(NAME, careEvents + plants);
+        logger.info("Compacted {} care events and the embedded history of {} plants", careEvents, plants);
+    }
+}
@@ -0,0 +1,107 @@
+package istdurstig.migration;
+
+import istdurstig.model.CareEvent;
+import istdurstig.model.Plant;
+import istdurstig.repository.CareEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Copies embedded care histories into care_events and trims plants down to the recent window.
+ * Every new care event trims the embedded history as well, so this runs once, before the web server accepts
+ * requests, and is then recorded in the migration log. Events already in care_events (matched by id, or by
+ * type and time for legacy events without one) are not copied again, so plants that received events through
+ * the new code path still get their older history.
+ */
+@Component
+@ConditionalOnProperty(name = "app.migrations.care-history", havingValue = "true", matchIfMissing = true)
+public class CareHistoryMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CareHistoryMigration.class);
+
+    private static final String NAME = "care-history";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CareEventRepository careEventRepository;
+
+    @Autowired
+    private MigrationLog migrationLog;
+
+    @PostConstruct
+    public void run() {
+        if (migrationLog.isDone(NAME)) {
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("careHistory.0").exists(true));
+        query.fields().include("careHistory");
+
+        int migrated = 0;
+        try (Stream<Plant> stream = mongoTemplate.stream(query, Plant.class)) {
+            Iterator<Plant> plants = stream.iterator();
+            while (plants.hasNext()) {
+                Plant plant = plants.next();
+                copyHistory(plant);
+                if (plant.getCareHistory().size() > Plant.RECENT_HISTORY_SIZE) {
+                    // $each [] with $slice trims in place without overwriting anything pushed meanwhile
+                    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(plant.getId())),
+                            new Update().push("careHistory").slice(-Plant.RECENT_HISTORY_SIZE).each()
+                                    .inc("version", 1),
+                            Plant.class);
+                }
+                migrated++;
+            }
+        }
+        migrationLog.markDone(NAME, migrated);
+        logger.info("Moved care history of {} plants into care_events", migrated);
+    }
+
+    private void copyHistory(Plant plant) {
+        Query storedQuery = Query.query(Criteria.where("plantId").is(plant.getId()));
+        storedQuery.fields().include("type").include("timestamp");
+        Set<String> storedIds = new HashSet<>();
+        Set<String> storedKeys = new HashSet<>();
+        for (CareEvent stored : mongoTemplate.find(storedQuery, CareEvent.class)) {
+            storedIds.add(stored.getId());
+            storedKeys.add(key(stored));
+        }
+
+        List<CareEvent> missing = new ArrayList<>();
+        for (CareEvent event : plant.getCareHistory()) {
+            if (event.getId() != null ? storedIds.contains(event.getId()) : storedKeys.contains(key(event))) {
+                continue;
+            }
+            if (event.getId() == null) {
+                event.setId(new ObjectId().toHexString());
+            }
+            event.setPlantId(plant.getId());
+            missing.add(event);
+        }
+        if (!missing.isEmpty()) {
+            careEventRepository.insert(missing);
+        }
+    }
+
+    private static String key(CareEvent event) {
+        return event.getType() + "@" + event.getTimestamp();
+    }
+}
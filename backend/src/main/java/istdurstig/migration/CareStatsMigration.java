@@ -0,0 +1,146 @@
+package istdurstig.migration;
+
+import istdurstig.model.CareEvent;
+import istdurstig.model.CareStats;
+import istdurstig.model.Plant;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Computes careStats from the full history in care_events, oldest event first. A plant that received care events
+ * before this ran only has stats for those, so every plant is recomputed and its stats replaced, not just the ones
+ * without stats. This runs once, before the web server accepts requests and after CareHistoryMigration has copied
+ * the embedded histories, and is then recorded in the migration log. Each write is guarded by the version the plant
+ * was read at, so a care event added by another instance in between makes the chunk be computed again.
+ */
+@Component
+@ConditionalOnProperty(name = "app.migrations.care-stats", havingValue = "true", matchIfMissing = true)
+public class CareStatsMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CareStatsMigration.class);
+
+    private static final String NAME = "care-stats";
+
+    private static final int CHUNK = 500;
+
+    private static final int ATTEMPTS = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationLog migrationLog;
+
+    // Injected so the embedded histories are in care_events before stats are computed from them
+    @Autowired(required = false)
+    private CareHistoryMigration careHistoryMigration;
+
+    @PostConstruct
+    public void run() {
+        if (migrationLog.isDone(NAME)) {
+            return;
+        }
+
+        Query query = new Query();
+        query.fields().include("_id");
+
+        int migrated = 0;
+        List<String> chunk = new ArrayList<>();
+        try (Stream<Plant> stream = mongoTemplate.stream(query, Plant.class)) {
+            Iterator<Plant> plants = stream.iterator();
+            while (plants.hasNext()) {
+                chunk.add(plants.next().getId());
+                if (chunk.size() == CHUNK || !plants.hasNext()) {
+                    migrated += migrate(chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        migrationLog.markDone(NAME, migrated);
+        logger.info("Computed care stats for {} plants", migrated);
+    }
+
+    // Recomputing is idempotent, so a chunk in which any plant changed is simply computed again
+    private int migrate(List<String> plantIds) {
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            Query plantsQuery = Query.query(Criteria.where("_id").in(plantIds));
+            plantsQuery.fields().include("version").include("careHistory");
+            List<Plant> plants = mongoTemplate.find(plantsQuery, Plant.class);
+            if (plants.isEmpty()) {
+                return 0;
+            }
+
+            Map<String, CareStats> stats = computeStats(plants);
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Plant.class);
+            for (Plant plant : plants) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(plant.getId()).and("version").is(plant.getVersion())),
+                        Update.update("careStats", stats.get(plant.getId())).inc("version", 1));
+            }
+            if (bulk.execute().getMatchedCount() == plants.size()) {
+                return plants.size();
+            }
+        }
+        logger.warn("Care stats of some of the plants {} kept changing while they were computed", plantIds);
+        return 0;
+    }
+
+    private Map<String, CareStats> computeStats(List<Plant> plants) {
+        Map<String, CareStats> stats = new HashMap<>();
+        Map<String, Set<String>> embedded = new HashMap<>();
+        Map<String, LocalDateTime> oldestEmbedded = new HashMap<>();
+        for (Plant plant : plants) {
+            stats.put(plant.getId(), new CareStats());
+            Set<String> keys = new HashSet<>();
+            if (plant.getCareHistory() != null) {
+                for (CareEvent event : plant.getCareHistory()) {
+                    keys.add(key(event));
+                    oldestEmbedded.merge(plant.getId(), event.getTimestamp(),
+                            (oldest, timestamp) -> timestamp.isBefore(oldest) ? timestamp : oldest);
+                }
+            }
+            embedded.put(plant.getId(), keys);
+        }
+
+        // Walks the plant_timestamp index backwards, so each plant's events arrive oldest first. An event that is
+        // newer than the embedded window but not in it is stored but not yet applied to its plant; the care event
+        // update that is about to apply it records it into the stats itself
+        Query events = Query.query(Criteria.where("plantId").in(stats.keySet()))
+                .with(Sort.by(Sort.Order.desc("plantId"), Sort.Order.asc("timestamp")));
+        try (Stream<CareEvent> stream = mongoTemplate.stream(events, CareEvent.class)) {
+            stream.forEach(event -> {
+                LocalDateTime oldest = oldestEmbedded.get(event.getPlantId());
+                boolean applied = embedded.get(event.getPlantId()).contains(key(event))
+                        || (oldest != null && event.getTimestamp().isBefore(oldest));
+                if (applied) {
+                    stats.get(event.getPlantId()).record(event);
+                }
+            });
+        }
+        return stats;
+    }
+
+    // Legacy embedded events have no id, so they are matched by type and time like in CareHistoryMigration
+    private static String key(CareEvent event) {
+        return event.getType() + "@" + event.getTimestamp();
+    }
+}
@@ -0,0 +1,47 @@
+package istdurstig.migration;
+
+import istdurstig.model.Plant;
+import istdurstig.model.PlantList;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+// Documents saved before @Version existed would be treated as new and re-inserted on save, so give them version 0.
+// This runs before the web server accepts requests, so no save sees an unversioned document. The version field is
+// not indexed, so this scans both collections once and is then skipped
+@Component
+@ConditionalOnProperty(name = "app.migrations.document-version", havingValue = "true", matchIfMissing = true)
+public class DocumentVersionMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentVersionMigration.class);
+
+    private static final String NAME = "document-version";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationLog migrationLog;
+
+    @PostConstruct
+    public void run() {
+        if (migrationLog.isDone(NAME)) {
+            return;
+        }
+
+        Query unversioned = Query.query(Criteria.where("version").exists(false));
+        long plants = mongoTemplate.updateMulti(unversioned, Update.update("version", 0L), Plant.class)
+                .getModifiedCount();
+        long plantLists = mongoTemplate.updateMulti(unversioned, Update.update("version", 0L), PlantList.class)
+                .getModifiedCount();
+        migrationLog.markDone(NAME, plants + plantLists);
+        logger.info("Initialised version on {} plants and {} plant lists", plants, plantLists);
+    }
+}
@@ -0,0 +1,29 @@
+package istdurstig.migration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+// Completed backfills are recorded in the migrations collection so later starts skip them instead of scanning again
+@Component
+public class MigrationLog {
+
+    static final String COLLECTION = "migrations";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public boolean isDone(String name) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(name)), COLLECTION);
+    }
+
+    public void markDone(String name, long affected) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(name)),
+                new Update().set("completedAt", new Date()).set("affected", affected), COLLECTION);
+    }
+}
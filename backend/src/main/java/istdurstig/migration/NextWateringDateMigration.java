@@ -0,0 +1,58 @@
+package istdurstig.migration;
+
+import istdurstig.model.Plant;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Fills in nextWateringDate for plants that were watered before the field existed. The due query treats a missing
+// nextWateringDate as "never watered", so this runs once, before the web server accepts requests
+@Component
+@ConditionalOnProperty(name = "app.migrations.next-watering-date", havingValue = "true", matchIfMissing = true)
+public class NextWateringDateMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(NextWateringDateMigration.class);
+
+    private static final String NAME = "next-watering-date";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationLog migrationLog;
+
+    @PostConstruct
+    public void run() {
+        if (migrationLog.isDone(NAME)) {
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("nextWateringDate").exists(false)
+                .and("schedule.lastWatered").ne(null));
+        query.fields().include("schedule");
+
+        int migrated = 0;
+        try (Stream<Plant> stream = mongoTemplate.stream(query, Plant.class)) {
+            Iterator<Plant> plants = stream.iterator();
+            while (plants.hasNext()) {
+                Plant plant = plants.next();
+                plant.refreshNextWateringDate();
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(plant.getId())),
+                        Update.update("nextWateringDate", plant.getNextWateringDate()).inc("version", 1), Plant.class);
+                migrated++;
+            }
+        }
+        migrationLog.markDone(NAME, migrated);
+        logger.info("Set nextWateringDate on {} plants", migrated);
+    }
+}
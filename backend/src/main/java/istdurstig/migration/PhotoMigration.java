@@ -0,0 +1,55 @@
+package istdurstig.migration;
+
+import istdurstig.model.Plant;
+import istdurstig.service.PhotoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Moves inline base64 photos out of plant documents into the photo store
+@Component
+@ConditionalOnProperty(name = "app.migrations.photos", havingValue = "true")
+public class PhotoMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query query = Query.query(Criteria.where("photoUrl").regex("^data:"));
+        query.fields().include("photoUrl");
+
+        int migrated = 0;
+        try (Stream<Plant> stream = mongoTemplate.stream(query, Plant.class)) {
+            Iterator<Plant> plants = stream.iterator();
+            while (plants.hasNext()) {
+                Plant plant = plants.next();
+                try {
+                    String reference = photoService.toPhotoReference(plant.getPhotoUrl());
+                    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(plant.getId())),
+                            new Update().set("photoUrl", reference).inc("version", 1), Plant.class);
+                    migrated++;
+                } catch (RuntimeException e) {
+                    logger.warn("Could not migrate photo of plant {}: {}", plant.getId(), e.getMessage());
+                }
+            }
+        }
+        logger.info("Moved inline photos of {} plants into the photo store", migrated);
+    }
+}
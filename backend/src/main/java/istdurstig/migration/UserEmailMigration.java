@@ -0,0 +1,44 @@
+package istdurstig.migration;
+
+import istdurstig.model.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+// Users registered before prefix search have no emailLower and would never match; fill it server side in one update.
+// Registration sets emailLower itself, so this runs once, before the web server accepts requests, and is then skipped
+@Component
+@ConditionalOnProperty(name = "app.migrations.user-email-lower", havingValue = "true", matchIfMissing = true)
+public class UserEmailMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailMigration.class);
+
+    private static final String NAME = "user-email-lower";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MigrationLog migrationLog;
+
+    @PostConstruct
+    public void run() {
+        if (migrationLog.isDone(NAME)) {
+            return;
+        }
+
+        long users = mongoTemplate.updateMulti(Query.query(Criteria.where("emailLower").exists(false)),
+                AggregationUpdate.update().set("emailLower").toValue(StringOperators.valueOf("email").toLower()),
+                User.class).getModifiedCount();
+        migrationLog.markDone(NAME, users);
+        logger.info("Initialised emailLower on {} users", users);
+    }
+}
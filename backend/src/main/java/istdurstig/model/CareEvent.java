@@ -6,15 +6,20 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Document(collection = "care_events")
+@CompoundIndex(name = "plant_timestamp", def = "{'plantId': 1, 'timestamp': -1}")
 public abstract class CareEvent {
     @Id
     private String id;
+    private String plantId;
     private CareEventType type;
     private LocalDateTime timestamp;
     private String notes;
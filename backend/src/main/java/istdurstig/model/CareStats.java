@@ -0,0 +1,63 @@
+package istdurstig.model;
+
+import istdurstig.model.enums.CareEventType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Running totals over a plant's whole care history, kept up to date on every care event
+@Data
+@NoArgsConstructor
+public class CareStats {
+    // Weight of the newest interval in the moving average
+    public static final double INTERVAL_EMA_WEIGHT = 0.3;
+
+    private Map<CareEventType, TypeStats> byType = new EnumMap<>(CareEventType.class);
+    private double totalWateredLiters;
+    // Exponential moving average of the days between waterings, null until the second watering
+    private Double wateringIntervalDays;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeStats {
+        private long count;
+        private LocalDateTime last;
+    }
+
+    public void record(CareEvent event) {
+        if (byType == null) {
+            byType = new EnumMap<>(CareEventType.class);
+        }
+        TypeStats stats = byType.computeIfAbsent(event.getType(), type -> new TypeStats());
+        if (event instanceof WateringEvent watering) {
+            wateringIntervalDays = nextWateringInterval(stats.getLast(), event.getTimestamp());
+            totalWateredLiters += watering.getAmountLiters();
+        }
+        stats.setCount(stats.getCount() + 1);
+        if (stats.getLast() == null || event.getTimestamp().isAfter(stats.getLast())) {
+            stats.setLast(event.getTimestamp());
+        }
+    }
+
+    // Events recorded out of order leave the average unchanged
+    public Double nextWateringInterval(LocalDateTime lastWatered, LocalDateTime timestamp) {
+        if (lastWatered == null || !timestamp.isAfter(lastWatered)) {
+            return wateringIntervalDays;
+        }
+        double days = Duration.between(lastWatered, timestamp).toSeconds() / 86_400.0;
+        if (wateringIntervalDays == null) {
+            return days;
+        }
+        return INTERVAL_EMA_WEIGHT * days + (1 - INTERVAL_EMA_WEIGHT) * wateringIntervalDays;
+    }
+
+    public TypeStats get(CareEventType type) {
+        return byType != null ? byType.get(type) : null;
+    }
+}
@@ -4,8 +4,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,15 +19,24 @@ import java.util.Set;
 @AllArgsConstructor
 @Document(collection = "plants")
 public class Plant {
+    // Only the most recent events are embedded, the full history lives in care_events
+    public static final int RECENT_HISTORY_SIZE = 20;
+
     @Id
     private String id;
+    @Version
+    private Long version;
     private String name;
     private String type;
     private Set<String> tags;
     private String notes;
     private String photoUrl;
     private Schedule schedule;
+    // Persisted copy of schedule.nextWateringDate so due plants can be found with an index, null until first watered
+    @Indexed
+    private LocalDate nextWateringDate;
     private List<CareEvent> careHistory;
+    private CareStats careStats;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -34,7 +46,9 @@ public class Plant {
         this.tags = tags;
         this.notes = notes;
         this.schedule = schedule;
+        refreshNextWateringDate();
         this.careHistory = new ArrayList<>();
+        this.careStats = new CareStats();
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
@@ -43,15 +57,31 @@ public class Plant {
         return schedule != null && schedule.needsWatering();
     }
 
+    public void refreshNextWateringDate() {
+        if (schedule == null || schedule.getLastWatered() == null) {
+            this.nextWateringDate = null;
+        } else {
+            this.nextWateringDate = schedule.getNextWateringDate();
+        }
+    }
+
     public void addCareEvent(CareEvent event) {
         if (careHistory == null) {
             careHistory = new ArrayList<>();
         }
         careHistory.add(event);
+        if (careHistory.size() > RECENT_HISTORY_SIZE) {
+            careHistory.subList(0, careHistory.size() - RECENT_HISTORY_SIZE).clear();
+        }
+        if (careStats == null) {
+            careStats = new CareStats();
+        }
+        careStats.record(event);
         
         // Update last watered date if it's a watering event
         if (event instanceof WateringEvent && schedule != null) {
             schedule.setLastWatered(event.getTimestamp().toLocalDate());
+            refreshNextWateringDate();
         }
         
         this.updatedAt = LocalDateTime.now();
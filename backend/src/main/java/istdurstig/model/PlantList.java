@@ -4,6 +4,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -16,13 +20,22 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "plant_lists")
+// One index per branch of the owner-or-collaborator $or; the trailing _id serves the cursor pagination order
+@CompoundIndexes({
+        @CompoundIndex(name = "owner_id", def = "{'ownerId': 1, '_id': 1}"),
+        @CompoundIndex(name = "collaborator_id", def = "{'collaboratorIds': 1, '_id': 1}")
+})
 public class PlantList {
     @Id
     private String id;
+    @Version
+    private Long version;
     private String name;
     private String description;
     private String ownerId;
     private Set<String> collaboratorIds;
+    // Multikey, for finding the lists that contain a plant when it is deleted
+    @Indexed
     private List<String> plantIds;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
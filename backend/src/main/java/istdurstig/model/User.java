@@ -1,5 +1,6 @@
 package istdurstig.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Data
@@ -21,7 +23,13 @@ public class User {
     
     @Indexed(unique = true)
     private String email;
+
+    // Lowercased copy of email for anchored, index-backed prefix search
+    @Indexed
+    private String emailLower;
     
+    // bcrypt hash; never part of a JSON response
+    @JsonIgnore
     private String password;
     private String firstName;
     private String lastName;
@@ -31,6 +39,7 @@ public class User {
 
     public User(String email, String password, String firstName, String lastName) {
         this.email = email;
+        this.emailLower = normalizeEmail(email);
         this.password = password;
         this.firstName = firstName;
         this.lastName = lastName;
@@ -39,4 +48,8 @@ public class User {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
-}
\ No newline at end of file
+
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
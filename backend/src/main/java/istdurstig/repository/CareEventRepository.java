@@ -0,0 +1,16 @@
+package istdurstig.repository;
+
+import istdurstig.model.CareEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CareEventRepository extends MongoRepository<CareEvent, String> {
+    Page<CareEvent> findByPlantIdOrderByTimestampDesc(String plantId, Pageable pageable);
+
+    long countByPlantId(String plantId);
+
+    void deleteByPlantId(String plantId);
+}
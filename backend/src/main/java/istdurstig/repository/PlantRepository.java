@@ -5,12 +5,15 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PlantRepository extends MongoRepository<Plant, String> {
     List<Plant> findByIdIn(List<String> ids);
     
-    @Query("{ 'schedule.lastWatered': { $lte: ?0 } }")
-    List<Plant> findPlantsNeedingWater(String date);
+    // Never-watered plants have no nextWateringDate and are always due
+    @Query("{ '_id': { $in: ?0 }, $or: [ { 'nextWateringDate': null }, { 'nextWateringDate': { $lt: ?1 } } ] }")
+    List<Plant> findPlantsNeedingWater(Collection<String> plantIds, LocalDate date);
 }
\ No newline at end of file
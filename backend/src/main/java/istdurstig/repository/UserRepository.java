@@ -11,5 +11,4 @@ import java.util.Optional;
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-    List<User> findByEmailContainingIgnoreCase(String email);
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package istdurstig.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded cache of verified tokens, keyed by SHA-256 digest so raw tokens are never held in memory
+@Component
+public class AuthTokenCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwtCacheMaxEntries:10000}")
+    private int maxEntries;
+
+    @Value("${app.jwtCacheTtlMs:300000}")
+    private long ttlMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+
+    // Shared by both security stacks, so the counters are registered here rather than in either filter
+    @PostConstruct
+    public void bindMetrics() {
+        cacheCounter("hit", hits);
+        cacheCounter("miss", misses);
+        Gauge.builder("auth.jwt.cache.size", this, AuthTokenCache::size)
+                .description("Verified tokens held in the cache")
+                .register(meterRegistry);
+    }
+
+    public UserDetails get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, Date tokenExpiration) {
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        // Never serve a principal past the token's own expiry
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(digest(token), new Entry(userDetails, expiresAt));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void cacheCounter(String result, LongAdder count) {
+        FunctionCounter.builder("auth.jwt.cache", count, LongAdder::sum)
+                .description("Bearer token lookups in the verified token cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
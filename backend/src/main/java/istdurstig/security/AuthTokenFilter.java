@@ -1,5 +1,8 @@
 package istdurstig.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import istdurstig.service.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,24 +17,46 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
-    
+
+    private static final String STREAM_PATH = "/api/stream";
+
     @Autowired
     private JwtUtils jwtUtils;
 
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private AuthTokenCache authTokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer cachedTimer;
+
+    private Timer verifiedTimer;
+
+    private Timer rejectedTimer;
+
+    @Override
+    protected void initFilterBean() {
+        cachedTimer = jwtTimer("cached");
+        verifiedTimer = jwtTimer("verified");
+        rejectedTimer = jwtTimer("rejected");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String userId = jwtUtils.getUserIdFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserById(userId);
+            String streamToken = jwt == null ? parseStreamToken(request) : null;
+            UserDetails userDetails = jwt != null ? resolveUser(jwt)
+                    : streamToken != null ? resolveStreamUser(streamToken) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -45,6 +70,44 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Only requests that carry a token are timed, tagged by how the token was resolved
+    private UserDetails resolveUser(String jwt) {
+        long start = System.nanoTime();
+        UserDetails cached = authTokenCache.get(jwt);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        Claims claims = jwtUtils.parseVerifiedClaims(jwt);
+        // Stream tokens travel in URLs and are not accepted as session tokens
+        if (claims == null || claims.get(JwtUtils.SCOPE) != null) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserById(claims.getSubject());
+        authTokenCache.put(jwt, userDetails, claims.getExpiration());
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return userDetails;
+    }
+
+    // Stream tokens are only good for opening the stream, expire within a minute and are never cached
+    private UserDetails resolveStreamUser(String token) {
+        Claims claims = jwtUtils.parseVerifiedClaims(token);
+        if (claims == null || !JwtUtils.STREAM_SCOPE.equals(claims.get(JwtUtils.SCOPE))) {
+            return null;
+        }
+        return userDetailsService.loadUserById(claims.getSubject());
+    }
+
+    private Timer jwtTimer(String result) {
+        return Timer.builder("auth.jwt.filter")
+                .description("Time spent resolving the bearer token")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -54,4 +117,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
         return null;
     }
+
+    private String parseStreamToken(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) || !STREAM_PATH.equals(request.getServletPath())) {
+            return null;
+        }
+        String token = request.getParameter("access_token");
+        return StringUtils.hasText(token) ? token : null;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package istdurstig.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -18,34 +19,72 @@ public class JwtUtils {
     @Value("${app.jwtExpirationMs:86400000}")
     private int jwtExpirationMs;
 
+    @Value("${app.stream.tokenExpirationMs:60000}")
+    private int streamTokenExpirationMs;
+
+    // Claim that marks a token as only valid for opening /api/stream
+    public static final String SCOPE = "scope";
+    public static final String STREAM_SCOPE = "stream";
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateJwtToken(userPrincipal.getId());
+    }
 
+    public String generateJwtToken(String userId) {
         return Jwts.builder()
-                .subject(userPrincipal.getId())
+                .subject(userId)
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(getSigningKey())
                 .compact();
     }
 
+    // EventSource cannot send headers, so the stream takes a short-lived token in the URL instead of the session token
+    public String generateStreamToken(String userId) {
+        return Jwts.builder()
+                .subject(userId)
+                .claim(SCOPE, STREAM_SCOPE)
+                .issuedAt(new Date())
+                .expiration(new Date((new Date()).getTime() + streamTokenExpirationMs))
+                .signWith(getSigningKey())
+                .compact();
+    }
+
+    public int getStreamTokenExpirationMs() {
+        return streamTokenExpirationMs;
+    }
+
     public String getUserIdFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseVerifiedClaims(authToken) != null;
+    }
+
+    // Verifies the token and returns its claims in a single pass, or null if it is not valid
+    public Claims parseVerifiedClaims(String authToken) {
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
-            return true;
+            return jwtParser.parseSignedClaims(authToken).getPayload();
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            System.err.println("Invalid JWT signature: " + e.getMessage());
         } catch (MalformedJwtException e) {
             System.err.println("Invalid JWT token: " + e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -55,6 +94,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             System.err.println("JWT claims string is empty: " + e.getMessage());
         }
-        return false;
+        return null;
     }
 }
\ No newline at end of file
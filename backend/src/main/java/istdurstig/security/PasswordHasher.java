@@ -0,0 +1,113 @@
+package istdurstig.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bcrypt on a small dedicated pool with a bounded queue. A login storm can then use at most that many
+ * cores, and once the queue is full further attempts are turned away with 503 instead of piling up behind
+ * the regular API requests.
+ */
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.bcrypt.threads:0}")
+    private int threads;
+
+    @Value("${app.bcrypt.queueCapacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer hashTimer;
+
+    private Timer verifyTimer;
+
+    // Checked when the email is unknown so the response time does not reveal which emails are registered
+    private String dummyHash;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        // Measured on the pool thread, so these are bcrypt's own cost; queueing shows up in the queue gauge
+        hashTimer = bcryptTimer("hash");
+        verifyTimer = bcryptTimer("verify");
+        Gauge.builder("auth.bcrypt.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a bcrypt thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> hashTimer.recordCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : dummyHash;
+        return run(() -> verifyTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, hash)))
+                && encodedPassword != null;
+    }
+
+    private Timer bcryptTimer(String operation) {
+        return Timer.builder("auth.bcrypt")
+                .description("Time spent in bcrypt")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-in attempts, try again");
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while checking password", e);
+        }
+    }
+}
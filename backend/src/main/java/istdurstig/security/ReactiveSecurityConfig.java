@@ -0,0 +1,175 @@
+package istdurstig.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import istdurstig.dto.CursorPage;
+import istdurstig.service.ReactiveOffload;
+import istdurstig.service.UserDetailsServiceImpl;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.ServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Security for the reactive profile: same rules and JWT handling as WebSecurityConfig, on the WebFlux filter chain
+@Configuration
+@EnableWebFluxSecurity
+@Profile("reactive")
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private AuthTokenCache authTokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer cachedTimer;
+
+    private Timer verifiedTimer;
+
+    private Timer rejectedTimer;
+
+    @PostConstruct
+    void initTimers() {
+        cachedTimer = jwtTimer("cached");
+        verifiedTimer = jwtTimer("verified");
+        rejectedTimer = jwtTimer("rejected");
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // Logins go through AuthService; this manager only replaces Boot's generated in-memory user
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager() {
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        authProvider.setUserDetailsService(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder());
+        AuthenticationManager authenticationManager = new ProviderManager(authProvider);
+        return authentication -> ReactiveOffload.call(() -> authenticationManager.authenticate(authentication));
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(jwtSecurityContextRepository())
+                .exceptionHandling(exception ->
+                        exception.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(auth ->
+                        auth.pathMatchers("/api/auth/**").permitAll()
+                                .pathMatchers("/api/test/**").permitAll()
+                                .pathMatchers(HttpMethod.GET, "/api/photos/**").permitAll()
+                                // Scraped by Prometheus without a user token; only served on management.server.port
+                                .pathMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+                                .anyExchange().authenticated())
+                .build();
+    }
+
+    @Bean
+    public ServerSecurityContextRepository jwtSecurityContextRepository() {
+        return new ServerSecurityContextRepository() {
+            @Override
+            public Mono<Void> save(ServerWebExchange exchange, SecurityContext context) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<SecurityContext> load(ServerWebExchange exchange) {
+                String headerAuth = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+                if (headerAuth == null || !headerAuth.startsWith("Bearer ")) {
+                    return Mono.empty();
+                }
+                return resolveUser(headerAuth.substring(7))
+                        .map(userDetails -> new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities())));
+            }
+        };
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(Arrays.asList("*"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(CursorPage.NEXT_CURSOR_HEADER, "ETag"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    // Cached tokens resolve on the event loop; only a cache miss pays for the blocking user lookup
+    private Mono<UserDetails> resolveUser(String jwt) {
+        long start = System.nanoTime();
+        UserDetails cached = authTokenCache.get(jwt);
+        if (cached != null) {
+            recordJwt(cachedTimer, start);
+            return Mono.just(cached);
+        }
+
+        Claims claims = jwtUtils.parseVerifiedClaims(jwt);
+        // Stream tokens travel in URLs and are not accepted as session tokens
+        if (claims == null || claims.get(JwtUtils.SCOPE) != null) {
+            recordJwt(rejectedTimer, start);
+            return Mono.empty();
+        }
+        return ReactiveOffload.call(() -> userDetailsService.loadUserById(claims.getSubject()))
+                .doOnNext(userDetails -> {
+                    authTokenCache.put(jwt, userDetails, claims.getExpiration());
+                    recordJwt(verifiedTimer, start);
+                })
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private static void recordJwt(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // Same meter as AuthTokenFilter
+    private Timer jwtTimer(String result) {
+        return Timer.builder("auth.jwt.filter")
+                .description("Time spent resolving the bearer token")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
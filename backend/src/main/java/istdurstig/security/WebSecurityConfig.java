@@ -1,9 +1,12 @@
 package istdurstig.security;
 
+import istdurstig.dto.CursorPage;
 import istdurstig.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -24,6 +27,7 @@ import java.util.Arrays;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@Profile("!reactive")
 public class WebSecurityConfig {
 
     @Autowired
@@ -64,6 +68,10 @@ public class WebSecurityConfig {
             .authorizeHttpRequests(auth -> 
                 auth.requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/test/**").permitAll()
+                    // Photos are content-addressed and loaded by <img> tags that cannot send the token
+                    .requestMatchers(HttpMethod.GET, "/api/photos/**").permitAll()
+                    // Scraped by Prometheus without a user token; only served on management.server.port
+                    .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
                     .anyRequest().authenticated()
             );
 
@@ -79,6 +87,7 @@ public class WebSecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(CursorPage.NEXT_CURSOR_HEADER, "ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -6,76 +6,54 @@ import istdurstig.dto.RegisterRequest;
 import istdurstig.model.User;
 import istdurstig.repository.UserRepository;
 import istdurstig.security.JwtUtils;
-import istdurstig.security.UserPrincipal;
+import istdurstig.security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuthService {
-    
-    @Autowired
-    private AuthenticationManager authenticationManager;
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder encoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtils jwtUtils;
 
-    public AuthResponse authenticateUser(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
+    @Autowired
+    private UserSearchCache userSearchCache;
 
-        UserPrincipal userDetails = (UserPrincipal) authentication.getPrincipal();
+    // One user load and one bcrypt verify; the loaded user already carries everything the response needs
+    public AuthResponse authenticateUser(LoginRequest loginRequest) {
+        User user = userRepository.findByEmail(loginRequest.getEmail()).orElse(null);
+        boolean matches = passwordHasher.matches(loginRequest.getPassword(), user != null ? user.getPassword() : null);
+        if (user == null || !matches) {
+            throw new BadCredentialsException("Bad credentials");
+        }
 
-        return new AuthResponse(jwt, userDetails.getId(), userDetails.getEmail(), 
-                               getUserFirstName(userDetails.getId()), getUserLastName(userDetails.getId()));
+        return new AuthResponse(jwtUtils.generateJwtToken(user.getId()), user.getId(), user.getEmail(),
+                               user.getFirstName(), user.getLastName());
     }
 
+    // One bcrypt hash; duplicates are rejected by the unique email index rather than a separate lookup
     public AuthResponse registerUser(RegisterRequest signUpRequest) {
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            throw new RuntimeException("Error: Email is already in use!");
-        }
-
         User user = new User(signUpRequest.getEmail(),
-                           encoder.encode(signUpRequest.getPassword()),
+                           passwordHasher.encode(signUpRequest.getPassword()),
                            signUpRequest.getFirstName(),
                            signUpRequest.getLastName());
 
-        userRepository.save(user);
-
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(signUpRequest.getEmail(), signUpRequest.getPassword()));
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-
-        UserPrincipal userDetails = (UserPrincipal) authentication.getPrincipal();
-
-        return new AuthResponse(jwt, userDetails.getId(), userDetails.getEmail(),
-                               signUpRequest.getFirstName(), signUpRequest.getLastName());
-    }
-
-    private String getUserFirstName(String userId) {
-        return userRepository.findById(userId)
-                .map(User::getFirstName)
-                .orElse("");
-    }
+        try {
+            user = userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("Error: Email is already in use!");
+        }
+        userSearchCache.clear();
 
-    private String getUserLastName(String userId) {
-        return userRepository.findById(userId)
-                .map(User::getLastName)
-                .orElse("");
+        return new AuthResponse(jwtUtils.generateJwtToken(user.getId()), user.getId(), user.getEmail(),
+                               user.getFirstName(), user.getLastName());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package istdurstig.service;
+
+import istdurstig.dto.DashboardResponse;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class DashboardService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Lists, plant counts and the most overdue plants in a single aggregation over plant_lists
+    public DashboardResponse getDashboard(String userId, int top) {
+        Document result = mongoTemplate.getCollection("plant_lists").aggregate(pipeline(userId, top, LocalDate.now()))
+                .first();
+        if (result == null) {
+            return new DashboardResponse();
+        }
+        return mongoTemplate.getConverter().read(DashboardResponse.class, result);
+    }
+
+    public static List<Document> pipeline(String userId, int top, LocalDate today) {
+        Date todayStart = toDate(today);
+        Date yesterdayStart = toDate(today.minusDays(1));
+
+        // List.of rejects nulls, so the null comparisons use Arrays.asList
+        Document overdue = new Document("$and", List.of(
+                new Document("$ne", Arrays.asList(
+                        new Document("$ifNull", Arrays.asList("$plants.nextWateringDate", null)), null)),
+                new Document("$lt", List.of("$plants.nextWateringDate", todayStart))));
+        Document due = new Document("$or", List.of(
+                new Document("$eq", Arrays.asList(
+                        new Document("$ifNull", Arrays.asList("$plants.nextWateringDate", null)), null)),
+                new Document("$lt", List.of("$plants.nextWateringDate", todayStart))));
+        Document recentlyWatered = new Document("$gte", List.of("$plants.schedule.lastWatered", yesterdayStart));
+
+        // List plant ids are strings while plant _ids are ObjectIds
+        Document plantObjectIds = new Document("$map", new Document("input", "$plantIds")
+                .append("in", new Document("$convert", new Document("input", "$$this._id")
+                        .append("to", "objectId").append("onError", "$$this._id"))));
+
+        return List.of(
+                new Document("$match", new Document("$or", List.of(
+                        new Document("ownerId", userId), new Document("collaboratorIds", userId)))),
+                new Document("$facet", new Document()
+                        .append("lists", List.of(new Document("$project", new Document("name", 1)
+                                .append("description", 1).append("ownerId", 1)
+                                .append("plantCount", new Document("$size",
+                                        new Document("$ifNull", List.of("$plantIds", List.of())))))))
+                        .append("plantIds", List.of(
+                                new Document("$unwind", "$plantIds"),
+                                new Document("$group", new Document("_id", "$plantIds"))))),
+                new Document("$project", new Document("lists", 1).append("plantIds", plantObjectIds)),
+                // An equality lookup probes the plants _id index once per id; the $unwind right after it
+                // is folded into the lookup, so the joined plants never have to fit into one document
+                new Document("$lookup", new Document("from", "plants")
+                        .append("localField", "plantIds")
+                        .append("foreignField", "_id")
+                        .append("as", "plants")),
+                new Document("$unwind", new Document("path", "$plants").append("preserveNullAndEmptyArrays", true)),
+                new Document("$facet", new Document()
+                        .append("lists", List.of(new Document("$limit", 1), new Document("$project", new Document("lists", 1))))
+                        .append("counts", List.of(
+                                new Document("$match", new Document("plants", new Document("$exists", true))),
+                                new Document("$group", new Document("_id", null)
+                                        .append("total", new Document("$sum", 1))
+                                        .append("due", sumIf(due))
+                                        .append("overdue", sumIf(overdue))
+                                        .append("recentlyWatered", sumIf(recentlyWatered)))))
+                        .append("mostOverdue", List.of(
+                                new Document("$match", new Document("$expr", overdue)),
+                                new Document("$sort", new Document("plants.nextWateringDate", 1)),
+                                new Document("$limit", top),
+                                new Document("$replaceRoot", new Document("newRoot", "$plants")),
+                                new Document("$project", new Document("name", 1).append("type", 1).append("tags", 1)
+                                        .append("photoUrl", 1).append("schedule", 1).append("nextWateringDate", 1))))),
+                new Document("$project", new Document()
+                        .append("lists", new Document("$ifNull", List.of(
+                                new Document("$arrayElemAt", List.of("$lists.lists", 0)), List.of())))
+                        .append("totalPlants", firstCount("total"))
+                        .append("dueCount", firstCount("due"))
+                        .append("overdueCount", firstCount("overdue"))
+                        .append("recentlyWateredCount", firstCount("recentlyWatered"))
+                        .append("mostOverdue", 1)));
+    }
+
+    private static Document sumIf(Document condition) {
+        return new Document("$sum", new Document("$cond", List.of(condition, 1, 0)));
+    }
+
+    private static Document firstCount(String field) {
+        return new Document("$ifNull", List.of(
+                new Document("$arrayElemAt", List.of("$counts." + field, 0)), 0));
+    }
+
+    // LocalDate values are stored as the start of the day in the server's zone
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,65 @@
+package istdurstig.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+// Strong ETags derived from document versions
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String forVersion(Long version) {
+        return "\"" + (version != null ? version : 0) + "\"";
+    }
+
+    public static String forVersion(Long version, String variant) {
+        return "\"" + (version != null ? version : 0) + "-" + variant + "\"";
+    }
+
+    // Collection ETag over every (id, version) pair plus anything else that shapes the response
+    public static String forVersions(Map<String, Long> versionsById, String variant) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(variant.getBytes(StandardCharsets.UTF_8));
+            versionsById.forEach((id, version) ->
+                    digest.update((";" + id + ":" + version).getBytes(StandardCharsets.UTF_8)));
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Reads the version out of an If-Match header, null when absent or "*"
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Weak ETags cannot be used in If-Match");
+        }
+        value = value.replace("\"", "");
+        int dash = value.indexOf('-');
+        if (dash >= 0) {
+            value = value.substring(0, dash);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Unknown ETag");
+        }
+    }
+
+    public static void checkVersion(Long expectedVersion, Long actualVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(actualVersion != null ? actualVersion : 0L)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Document was modified");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package istdurstig.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import istdurstig.model.CareEvent;
+import istdurstig.model.Plant;
+import istdurstig.model.PlantList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes everything a user can see as newline-delimited JSON, one record per line:
+ * an {"export": {...}} header, then {"list": {...}} for every list, then for each chunk of plant ids the
+ * {"plant": {...}} records followed by all of their {"careEvent": {...}} records, newest first.
+ * Every collection is read through a cursor with a bounded batch size and each record is written to the
+ * stream as soon as it is read, so memory use does not grow with the size of the garden.
+ */
+@Service
+public class ExportService {
+
+    public static final int FORMAT_VERSION = 1;
+
+    // Bounds the size of the $in filter sent per query
+    private static final int PLANT_ID_CHUNK = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PlantAccessIndex plantAccessIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.batchSize:500}")
+    private int batchSize;
+
+    public void export(String userId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        List<String> plantIds = new ArrayList<>(plantAccessIndex.getAccessiblePlantIds(userId));
+        plantIds.sort(null);
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(new SerializedString("\n"));
+
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("export");
+            gen.writeNumberField("version", FORMAT_VERSION);
+            gen.writeStringField("userId", userId);
+            gen.writeStringField("exportedAt", LocalDateTime.now().toString());
+            gen.writeNumberField("plants", plantIds.size());
+            gen.writeEndObject();
+            gen.writeEndObject();
+
+            writeAll(gen, writer, "list", mongoTemplate.stream(listsQuery(userId, batchSize), PlantList.class));
+
+            for (int from = 0; from < plantIds.size(); from += PLANT_ID_CHUNK) {
+                List<String> chunk = plantIds.subList(from, Math.min(plantIds.size(), from + PLANT_ID_CHUNK));
+
+                writeAll(gen, writer, "plant", mongoTemplate.stream(plantsQuery(chunk, batchSize), Plant.class));
+                writeAll(gen, writer, "careEvent",
+                        mongoTemplate.stream(careEventsQuery(chunk, batchSize), CareEvent.class));
+            }
+
+            gen.writeRaw('\n');
+        }
+        out.flush();
+    }
+
+    private static <T> void writeAll(JsonGenerator gen, ObjectWriter writer, String recordType, Stream<T> records)
+            throws IOException {
+        try (records) {
+            Iterator<T> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                gen.writeStartObject();
+                gen.writeFieldName(recordType);
+                writer.writeValue(gen, iterator.next());
+                gen.writeEndObject();
+            }
+        }
+    }
+
+    public static Query listsQuery(String userId, int batchSize) {
+        return Query.query(new Criteria().orOperator(
+                        Criteria.where("ownerId").is(userId), Criteria.where("collaboratorIds").is(userId)))
+                .with(Sort.by("_id"))
+                .cursorBatchSize(batchSize);
+    }
+
+    // The embedded window duplicates the newest events, the full history follows as careEvent records
+    public static Query plantsQuery(Collection<String> plantIds, int batchSize) {
+        Query query = Query.query(Criteria.where("_id").in(plantIds))
+                .with(Sort.by("_id"))
+                .cursorBatchSize(batchSize);
+        query.fields().exclude("careHistory");
+        return query;
+    }
+
+    public static Query careEventsQuery(Collection<String> plantIds, int batchSize) {
+        return Query.query(Criteria.where("plantId").in(plantIds))
+                .with(Sort.by(Sort.Order.asc("plantId"), Sort.Order.desc("timestamp")))
+                .cursorBatchSize(batchSize);
+    }
+}
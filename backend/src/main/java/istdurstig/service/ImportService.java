@@ -0,0 +1,431 @@
+package istdurstig.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import istdurstig.dto.PlantImportRow;
+import istdurstig.factory.PlantFactory;
+import istdurstig.model.Plant;
+import istdurstig.model.PlantList;
+import istdurstig.model.enums.Frequency;
+import istdurstig.stream.ChangeEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports plants from CSV or newline-delimited JSON. The input is read row by row; valid rows are collected
+ * into batches of app.import.batchSize plants, each batch is written with one bulk insert and every target
+ * list receives one $addToSet/$each update per batch. Progress is written back as NDJSON while the import
+ * runs: an {"error": {...}} record for every rejected row and a {"progress": {...}} record after every
+ * batch, ending with {"done": {...}}. Memory use depends on the batch size, not on the size of the input:
+ * a row may hold at most app.import.maxRowChars characters and the whole input at most app.import.maxBytes
+ * bytes, and the import stops at the first row past either limit after committing the rows before it.
+ * Inline data: photos are rejected; photos are uploaded through /api/photos and referenced by URL.
+ */
+@Service
+public class ImportService {
+
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(MediaType contentType) {
+            return contentType != null && ImportService.CSV.isCompatibleWith(contentType) ? CSV : NDJSON;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PlantFactory plantFactory;
+
+    @Autowired
+    private PlantAccessIndex plantAccessIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.import.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.import.maxBytes:52428800}")
+    private long maxBytes;
+
+    @Value("${app.import.maxRowChars:65536}")
+    private int maxRowChars;
+
+    // Thrown by the readers when the input passes one of the limits; rows read before it are still imported
+    static final class LimitExceededException extends RuntimeException {
+        LimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void importPlants(String userId, InputStream in, Format format, String defaultListId, OutputStream out)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new LimitedInputStream(in, maxBytes),
+                StandardCharsets.UTF_8));
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(new SerializedString("\n"));
+
+            Run run = new Run(userId, defaultListId, gen);
+            try {
+                if (format == Format.CSV) {
+                    readCsv(reader, run);
+                } else {
+                    readNdjson(reader, run);
+                }
+            } catch (LimitExceededException e) {
+                run.reject(run.nextRow(), "Import stopped: " + e.getMessage());
+            }
+            run.flush();
+
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("done");
+            run.writeCounts();
+            gen.writeEndObject();
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        }
+        out.flush();
+    }
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        String line;
+        while ((line = readLine(reader)) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int rowNumber = run.nextRow();
+            PlantImportRow row;
+            try {
+                row = objectMapper.readValue(line, PlantImportRow.class);
+            } catch (JsonProcessingException e) {
+                run.reject(rowNumber, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.accept(rowNumber, row);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        CsvReader csv = new CsvReader(reader, maxRowChars);
+        List<String> header = csv.readRecord();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("frequency")) {
+            run.reject(0, "CSV header must contain the columns name and frequency");
+            return;
+        }
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            int rowNumber = run.nextRow();
+            PlantImportRow row = new PlantImportRow();
+            row.setName(column(record, columns, "name"));
+            row.setType(column(record, columns, "type"));
+            row.setNotes(column(record, columns, "notes"));
+            row.setPhotoUrl(column(record, columns, "photourl"));
+            row.setListId(column(record, columns, "listid"));
+
+            String tags = column(record, columns, "tags");
+            if (tags != null) {
+                row.setTags(Arrays.stream(tags.split(";"))
+                        .map(String::trim)
+                        .filter(tag -> !tag.isEmpty())
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+            }
+
+            String frequency = column(record, columns, "frequency");
+            if (frequency != null) {
+                try {
+                    row.setFrequency(Frequency.valueOf(frequency.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    run.reject(rowNumber, "frequency: unknown value " + frequency);
+                    continue;
+                }
+            }
+            run.accept(rowNumber, row);
+        }
+    }
+
+    // Like BufferedReader.readLine, but a line longer than maxRowChars stops the import instead of being buffered
+    private String readLine(BufferedReader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            }
+            if (line.length() == maxRowChars) {
+                throw new LimitExceededException("row longer than " + maxRowChars + " characters");
+            }
+            line.append((char) c);
+            c = reader.read();
+        }
+        return line.toString();
+    }
+
+    // Empty cells and missing trailing cells are read as null
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private final class Run {
+        private final String userId;
+        private final String defaultListId;
+        private final JsonGenerator gen;
+
+        // Lists checked so far; empty when the list is missing or the user is not a member
+        private final Map<String, Optional<PlantList>> lists = new HashMap<>();
+
+        private final List<Plant> plants = new ArrayList<>();
+        private final List<String> plantLists = new ArrayList<>();
+        private final List<Integer> rowNumbers = new ArrayList<>();
+
+        private int rows;
+        private int imported;
+        private int failed;
+
+        Run(String userId, String defaultListId, JsonGenerator gen) {
+            this.userId = userId;
+            this.defaultListId = defaultListId;
+            this.gen = gen;
+        }
+
+        int nextRow() {
+            return ++rows;
+        }
+
+        void accept(int rowNumber, PlantImportRow row) throws IOException {
+            Set<ConstraintViolation<PlantImportRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                reject(rowNumber, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            String listId = row.getListId() != null && !row.getListId().isBlank() ? row.getListId() : defaultListId;
+            if (listId == null || listId.isBlank()) {
+                reject(rowNumber, "listId: no list given for the row and no listId parameter");
+                return;
+            }
+            if (lists.computeIfAbsent(listId, this::findList).isEmpty()) {
+                reject(rowNumber, "listId: plant list not found or access denied");
+                return;
+            }
+
+            // Storing inline photos row by row would write GridFS files for rows that are rejected later
+            if (row.getPhotoUrl() != null && row.getPhotoUrl().regionMatches(true, 0, "data:", 0, 5)) {
+                reject(rowNumber, "photoUrl: inline data: photos cannot be imported, upload them to /api/photos first");
+                return;
+            }
+
+            Plant plant;
+            try {
+                plant = plantFactory.createPlant(row);
+            } catch (RuntimeException e) {
+                reject(rowNumber, e.getMessage());
+                return;
+            }
+            // Bulk inserts neither assign ids nor initialise the version
+            plant.setId(new ObjectId().toHexString());
+            plant.setVersion(0L);
+
+            plants.add(plant);
+            plantLists.add(listId);
+            rowNumbers.add(rowNumber);
+            if (plants.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(int rowNumber, String message) throws IOException {
+            failed++;
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("error");
+            gen.writeNumberField("row", rowNumber);
+            gen.writeStringField("message", message);
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+
+        void flush() throws IOException {
+            if (!plants.isEmpty()) {
+                insertBatch();
+                plants.clear();
+                plantLists.clear();
+                rowNumbers.clear();
+            }
+
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("progress");
+            writeCounts();
+            gen.writeEndObject();
+            gen.writeEndObject();
+            gen.flush();
+        }
+
+        void writeCounts() throws IOException {
+            gen.writeNumberField("rows", rows);
+            gen.writeNumberField("imported", imported);
+            gen.writeNumberField("failed", failed);
+        }
+
+        private Optional<PlantList> findList(String listId) {
+            Query query = PlantListService.memberOf(listId, userId);
+            query.fields().include("_id");
+            return Optional.ofNullable(mongoTemplate.findOne(query, PlantList.class));
+        }
+
+        private void insertBatch() throws IOException {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Plant.class);
+            bulk.insert(plants);
+            Set<Integer> failedOperations = new HashSet<>();
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                e.getErrors().forEach(error -> failedOperations.add(error.getIndex()));
+            }
+
+            Map<String, List<Integer>> byList = new LinkedHashMap<>();
+            for (int op = 0; op < plants.size(); op++) {
+                if (failedOperations.contains(op)) {
+                    reject(rowNumbers.get(op), "Insert failed");
+                } else {
+                    byList.computeIfAbsent(plantLists.get(op), listId -> new ArrayList<>()).add(op);
+                }
+            }
+
+            for (Map.Entry<String, List<Integer>> entry : byList.entrySet()) {
+                List<String> plantIds = entry.getValue().stream().map(op -> plants.get(op).getId()).toList();
+                Query query = PlantListService.memberOf(entry.getKey(), userId);
+                query.fields().include("ownerId").include("collaboratorIds").include("version");
+                Update update = new Update().addToSet("plantIds").each(plantIds.toArray())
+                        .set("updatedAt", LocalDateTime.now())
+                        .inc("version", 1);
+                PlantList saved = mongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().returnNew(true), PlantList.class);
+
+                if (saved == null) {
+                    // The list was deleted or the user removed from it during the import
+                    lists.put(entry.getKey(), Optional.empty());
+                    mongoTemplate.remove(Query.query(Criteria.where("_id").in(plantIds)), Plant.class);
+                    for (int op : entry.getValue()) {
+                        reject(rowNumbers.get(op), "listId: plant list not found or access denied");
+                    }
+                    continue;
+                }
+
+                plantIds.forEach(plantId -> plantAccessIndex.plantAdded(saved, plantId));
+                eventPublisher.publishEvent(ChangeEvent.forList(ChangeEvent.Type.LIST_UPDATED, saved, null, userId));
+                imported += plantIds.size();
+            }
+        }
+    }
+
+    // Counts the bytes read from the request body and stops the import once there are more than the limit
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            count += n;
+            if (count > limit) {
+                throw new LimitExceededException("input larger than " + limit + " bytes");
+            }
+        }
+    }
+}
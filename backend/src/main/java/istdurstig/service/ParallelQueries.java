@@ -0,0 +1,133 @@
+package istdurstig.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent repository calls of one request concurrently, so the request waits for the slowest query
+ * instead of the sum of all of them. Scopes follow StructuredTaskScope.ShutdownOnFailure: forks are joined
+ * together, the first failure interrupts the remaining forks and is rethrown, and closing the scope cancels
+ * anything still running. With spring.threads.virtual.enabled the executor starts one virtual thread per fork.
+ */
+@Component
+public class ParallelQueries {
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor executor;
+
+    public Scope open() {
+        return new Scope(executor);
+    }
+
+    public static class Scope implements AutoCloseable {
+
+        private final AsyncTaskExecutor executor;
+        private final List<FutureTask<?>> forks = new ArrayList<>();
+        private volatile boolean joined;
+
+        private Scope(AsyncTaskExecutor executor) {
+            this.executor = executor;
+        }
+
+        public <T> Supplier<T> fork(Callable<T> task) {
+            FutureTask<T> fork = new FutureTask<>(task) {
+                @Override
+                protected void done() {
+                    if (!isCancelled() && failed(this)) {
+                        shutdown();
+                    }
+                }
+            };
+            synchronized (forks) {
+                forks.add(fork);
+            }
+            executor.execute(fork);
+            return () -> {
+                if (!joined) {
+                    throw new IllegalStateException("Scope has not been joined");
+                }
+                return result(fork);
+            };
+        }
+
+        // Waits for every fork and rethrows the first failure as is
+        public void join() {
+            List<FutureTask<?>> snapshot;
+            synchronized (forks) {
+                snapshot = new ArrayList<>(forks);
+            }
+            RuntimeException failure = null;
+            for (FutureTask<?> fork : snapshot) {
+                try {
+                    fork.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = unwrap(e);
+                    }
+                } catch (InterruptedException e) {
+                    shutdown();
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for queries", e);
+                } catch (CancellationException e) {
+                    // Cancelled because a sibling failed; that failure is reported instead
+                }
+            }
+            joined = true;
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public void close() {
+            shutdown();
+        }
+
+        private void shutdown() {
+            synchronized (forks) {
+                for (FutureTask<?> fork : forks) {
+                    fork.cancel(true);
+                }
+            }
+        }
+
+        private static boolean failed(FutureTask<?> fork) {
+            try {
+                fork.get();
+                return false;
+            } catch (ExecutionException e) {
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private static <T> T result(FutureTask<T> fork) {
+            try {
+                return fork.get();
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while reading query result", e);
+            }
+        }
+
+        private static RuntimeException unwrap(ExecutionException e) {
+            return e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new RuntimeException(e.getCause());
+        }
+    }
+}
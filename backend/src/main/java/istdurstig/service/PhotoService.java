@@ -0,0 +1,191 @@
+package istdurstig.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsUpload;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+// Content-addressed photo storage on GridFS: the file name is the SHA-256 of the bytes, so uploads dedupe
+@Service
+public class PhotoService {
+
+    public static final String PHOTO_URL_PREFIX = "/api/photos/";
+
+    // Raster formats only: SVG and anything else a browser could run as a document is refused
+    public static final Set<String> ALLOWED_TYPES = Set.of("image/png", "image/jpeg", "image/webp", "image/gif");
+
+    private static final String FILES_COLLECTION = "fs.files";
+    private static final String CHUNKS_COLLECTION = "fs.chunks";
+
+    @Autowired
+    private GridFsTemplate gridFsTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public String storePhoto(MultipartFile file) {
+        String contentType = checkContentType(file.getContentType());
+        try {
+            String hash;
+            try (InputStream in = file.getInputStream()) {
+                hash = sha256(in);
+            }
+            if (!exists(hash)) {
+                try (InputStream in = file.getInputStream()) {
+                    store(in, hash, contentType, file.getSize());
+                }
+            }
+            return hash;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store photo", e);
+        }
+    }
+
+    public String storePhoto(byte[] bytes, String contentType) {
+        String checkedType = checkContentType(contentType);
+        try {
+            String hash = sha256(new ByteArrayInputStream(bytes));
+            if (!exists(hash)) {
+                store(new ByteArrayInputStream(bytes), hash, checkedType, bytes.length);
+            }
+            return hash;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store photo", e);
+        }
+    }
+
+    public GridFsResource getPhoto(String hash) {
+        GridFSFile file = gridFsTemplate.findOne(byHash(hash));
+        if (file == null) {
+            throw new RuntimeException("Photo not found");
+        }
+        return gridFsTemplate.getResource(file);
+    }
+
+    // Replaces an inline base64 data URL with a reference to the stored photo, other values pass through
+    public String toPhotoReference(String photoUrl) {
+        if (photoUrl == null || !photoUrl.startsWith("data:")) {
+            return photoUrl;
+        }
+
+        int comma = photoUrl.indexOf(',');
+        String header = comma < 0 ? "" : photoUrl.substring(5, comma);
+        if (!header.endsWith(";base64")) {
+            throw new RuntimeException("Unsupported photo data URL");
+        }
+
+        String contentType = header.substring(0, header.length() - ";base64".length());
+        if (!isAllowedType(contentType)) {
+            throw new RuntimeException("Photo must be a PNG, JPEG, WebP or GIF image");
+        }
+        byte[] bytes = Base64.getDecoder().decode(photoUrl.substring(comma + 1));
+        return PHOTO_URL_PREFIX + storePhoto(bytes, contentType);
+    }
+
+    public static boolean isAllowedType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return ALLOWED_TYPES.contains(mediaType.getType() + "/" + mediaType.getSubtype());
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    // Photos stored before the type check may have any type; those are only ever served as a download
+    public static MediaType servedContentType(String storedType) {
+        return isAllowedType(storedType) ? MediaType.parseMediaType(storedType) : MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    private static String checkContentType(String contentType) {
+        if (!isAllowedType(contentType)) {
+            throw new RuntimeException("Photo must be a PNG, JPEG, WebP or GIF image");
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mediaType.getType() + "/" + mediaType.getSubtype();
+    }
+
+    // The unique filename index settles concurrent uploads of the same photo; the loser's chunks are removed
+    private void store(InputStream in, String hash, String contentType, long size) {
+        ObjectId id = new ObjectId();
+        try {
+            gridFsTemplate.store(GridFsUpload.fromStream(in)
+                    .id(id)
+                    .filename(hash)
+                    .contentType(contentType)
+                    .metadata(new Document("size", size))
+                    .build());
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            mongoTemplate.getCollection(CHUNKS_COLLECTION).deleteMany(Filters.eq("files_id", id));
+        }
+    }
+
+    // Called by IndexCatalog when the unique index cannot be built: keeps the oldest copy of each photo
+    public int removeDuplicateFiles() {
+        int removed = 0;
+        for (Document duplicate : mongoTemplate.getCollection(FILES_COLLECTION).aggregate(List.of(
+                Aggregates.sort(Sorts.ascending("uploadDate")),
+                Aggregates.group("$filename", Accumulators.push("ids", "$_id")),
+                Aggregates.match(Filters.expr(new Document("$gt", List.of(new Document("$size", "$ids"), 1))))))) {
+            List<Object> ids = duplicate.getList("ids", Object.class);
+            for (Object id : ids.subList(1, ids.size())) {
+                gridFsTemplate.delete(Query.query(Criteria.where("_id").is(id)));
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean exists(String hash) {
+        return gridFsTemplate.findOne(byHash(hash)) != null;
+    }
+
+    public static Query byHash(String hash) {
+        return Query.query(Criteria.where("filename").is(hash));
+    }
+
+    private static String sha256(InputStream in) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+                digestIn.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package istdurstig.service;
+
+import istdurstig.dto.CursorPage;
+import istdurstig.model.PlantList;
+import istdurstig.repository.PlantListRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the plants each user can reach through the lists they own or collaborate on.
+ * Every user maps plantId -> ids of the lists granting access, so all updates are idempotent and
+ * a plant stays accessible while at least one list still contains it.
+ * Users are loaded lazily on first access and then kept current by the list mutations of this process.
+ * The index assumes a single application node: list changes made by another node only reach it through
+ * the change stream (app.stream.change-streams=true) or when the entry expires after app.accessIndexTtlMs.
+ * At most app.accessIndexMaxEntries users are held at a time.
+ */
+@Component
+public class PlantAccessIndex {
+
+    @Autowired
+    private PlantListRepository plantListRepository;
+
+    @Value("${app.accessIndexMaxEntries:10000}")
+    private int maxEntries;
+
+    @Value("${app.accessIndexTtlMs:300000}")
+    private long ttlMs;
+
+    private final Map<String, Entry> accessByUser = new ConcurrentHashMap<>();
+
+    // Bumped by every grant, revoke and eviction; a load that overlaps one is used once but not cached
+    private final AtomicLong modifications = new AtomicLong();
+
+    private record Entry(Map<String, Set<String>> plants, long expiresAt) {
+    }
+
+    public boolean hasAccess(String userId, String plantId) {
+        return forUser(userId).containsKey(plantId);
+    }
+
+    public Set<String> getAccessiblePlantIds(String userId) {
+        return Collections.unmodifiableSet(forUser(userId).keySet());
+    }
+
+    // True when the user's entry is in memory, i.e. reading it will not touch the database
+    public boolean isLoaded(String userId) {
+        Entry entry = accessByUser.get(userId);
+        return entry != null && entry.expiresAt() > System.currentTimeMillis();
+    }
+
+    // Never touches the database: null when the user's entry is not in memory
+    public Set<String> getLoadedPlantIds(String userId) {
+        Entry entry = accessByUser.get(userId);
+        if (entry == null || entry.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return Collections.unmodifiableSet(entry.plants().keySet());
+    }
+
+    public record IdPage(Collection<String> ids, String nextCursor) {
+    }
+
+    // Selects the next page of ids so Mongo only ever sees a page-sized $in
+    public IdPage selectPage(String userId, String after, int limit) {
+        String afterId = CursorPage.decodeCursor(after);
+        PriorityQueue<String> pageIds = new PriorityQueue<>(limit, Comparator.reverseOrder());
+        boolean hasMore = false;
+        for (String plantId : forUser(userId).keySet()) {
+            if (afterId != null && plantId.compareTo(afterId) <= 0) {
+                continue;
+            }
+            if (pageIds.size() < limit) {
+                pageIds.add(plantId);
+            } else {
+                hasMore = true;
+                if (plantId.compareTo(pageIds.peek()) < 0) {
+                    pageIds.poll();
+                    pageIds.add(plantId);
+                }
+            }
+        }
+        return new IdPage(pageIds, hasMore ? CursorPage.encodeCursor(pageIds.peek()) : null);
+    }
+
+    public void plantAdded(PlantList list, String plantId) {
+        for (String userId : members(list)) {
+            grant(userId, plantId, list.getId());
+        }
+    }
+
+    public void plantRemoved(PlantList list, String plantId) {
+        // The list may still hold another copy of the plant id
+        if (list.getPlantIds() != null && list.getPlantIds().contains(plantId)) {
+            return;
+        }
+        for (String userId : members(list)) {
+            revoke(userId, plantId, list.getId());
+        }
+    }
+
+    public void collaboratorAdded(PlantList list, String userId) {
+        if (list.getPlantIds() == null) {
+            return;
+        }
+        for (String plantId : list.getPlantIds()) {
+            grant(userId, plantId, list.getId());
+        }
+    }
+
+    public void collaboratorRemoved(PlantList list, String userId) {
+        if (list.getPlantIds() == null) {
+            return;
+        }
+        for (String plantId : list.getPlantIds()) {
+            revoke(userId, plantId, list.getId());
+        }
+    }
+
+    public void listDeleted(PlantList list) {
+        for (String userId : members(list)) {
+            collaboratorRemoved(list, userId);
+        }
+    }
+
+    public void evict(String userId) {
+        modifications.incrementAndGet();
+        accessByUser.remove(userId);
+    }
+
+    public void evictAll() {
+        modifications.incrementAndGet();
+        accessByUser.clear();
+    }
+
+    // The query runs outside the map, so a slow load never blocks other users' entries
+    private Map<String, Set<String>> forUser(String userId) {
+        Entry entry = accessByUser.get(userId);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            return entry.plants();
+        }
+
+        long seen = modifications.get();
+        Map<String, Set<String>> plants = load(userId);
+        if (modifications.get() == seen) {
+            if (accessByUser.size() >= maxEntries) {
+                makeRoom();
+            }
+            // Grants and revokes bump the stamp before they update the entry under the same key lock, so checking it
+            // again inside compute means a concurrent change either lands on the new entry or keeps it out
+            accessByUser.compute(userId, (id, current) -> modifications.get() == seen
+                    ? new Entry(plants, System.currentTimeMillis() + ttlMs)
+                    : current);
+        }
+        return plants;
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        accessByUser.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        Iterator<String> keys = accessByUser.keySet().iterator();
+        while (accessByUser.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private Map<String, Set<String>> load(String userId) {
+        Map<String, Set<String>> plants = new ConcurrentHashMap<>();
+        for (PlantList list : plantListRepository.findByOwnerIdOrCollaboratorIdsContaining(userId)) {
+            if (list.getPlantIds() == null) {
+                continue;
+            }
+            for (String plantId : list.getPlantIds()) {
+                plants.computeIfAbsent(plantId, id -> ConcurrentHashMap.newKeySet()).add(list.getId());
+            }
+        }
+        return plants;
+    }
+
+    // Users that are not indexed yet pick up the change when they are first loaded
+    private void grant(String userId, String plantId, String listId) {
+        modifications.incrementAndGet();
+        accessByUser.computeIfPresent(userId, (id, entry) -> {
+            entry.plants().computeIfAbsent(plantId, p -> ConcurrentHashMap.newKeySet()).add(listId);
+            return entry;
+        });
+    }
+
+    private void revoke(String userId, String plantId, String listId) {
+        modifications.incrementAndGet();
+        accessByUser.computeIfPresent(userId, (id, entry) -> {
+            entry.plants().computeIfPresent(plantId, (p, lists) -> {
+                lists.remove(listId);
+                return lists.isEmpty() ? null : lists;
+            });
+            return entry;
+        });
+    }
+
+    private Set<String> members(PlantList list) {
+        Set<String> members = new HashSet<>();
+        members.add(list.getOwnerId());
+        if (list.getCollaboratorIds() != null) {
+            members.addAll(list.getCollaboratorIds());
+        }
+        return members;
+    }
+}
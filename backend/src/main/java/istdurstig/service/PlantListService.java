@@ -1,13 +1,26 @@
 package istdurstig.service;
 
+import istdurstig.dto.CursorPage;
 import istdurstig.dto.PlantListRequest;
 import istdurstig.model.PlantList;
+import istdurstig.model.User;
 import istdurstig.repository.PlantListRepository;
 import istdurstig.repository.PlantRepository;
+import istdurstig.stream.ChangeEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PlantListService {
@@ -21,10 +34,53 @@ public class PlantListService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PlantAccessIndex plantAccessIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<PlantList> getAllPlantListsForUser(String userId) {
         return plantListRepository.findByOwnerIdOrCollaboratorIdsContaining(userId);
     }
 
+    public CursorPage<PlantList> getPlantListsForUser(String userId, String after, int limit) {
+        List<PlantList> plantLists = mongoTemplate.find(pageQuery(userId, after, limit), PlantList.class);
+        String nextCursor = null;
+        if (plantLists.size() > limit) {
+            plantLists = plantLists.subList(0, limit);
+            nextCursor = CursorPage.encodeCursor(plantLists.get(limit - 1).getId());
+        }
+        return new CursorPage<>(plantLists, nextCursor);
+    }
+
+    // Aggregate ETag of a page, computed from a version-only projection
+    public String getPlantListsETag(String userId, String after, int limit) {
+        Query query = pageQuery(userId, after, limit);
+        query.fields().include("version");
+        Map<String, Long> versions = new LinkedHashMap<>();
+        for (PlantList plantList : mongoTemplate.find(query, PlantList.class)) {
+            versions.put(plantList.getId(), plantList.getVersion());
+        }
+        return ETags.forVersions(versions, "lists:" + limit);
+    }
+
+    public String getPlantListETag(String listId, String userId) {
+        Query query = Query.query(Criteria.where("_id").is(listId));
+        query.fields().include("ownerId", "collaboratorIds", "version");
+        PlantList plantList = mongoTemplate.findOne(query, PlantList.class);
+        if (plantList == null) {
+            throw new RuntimeException("Plant list not found");
+        }
+        if (!plantList.isUserAllowed(userId)) {
+            throw new RuntimeException("Access denied");
+        }
+        return ETags.forVersion(plantList.getVersion());
+    }
+
     public PlantList getPlantListById(String listId, String userId) {
         PlantList plantList = plantListRepository.findById(listId)
                 .orElseThrow(() -> new RuntimeException("Plant list not found"));
@@ -42,91 +98,152 @@ public class PlantListService {
         return plantListRepository.save(plantList);
     }
 
-    public PlantList updatePlantList(String listId, PlantListRequest plantListRequest, String userId) {
-        PlantList plantList = getPlantListById(listId, userId);
-
+    public PlantList updatePlantList(String listId, PlantListRequest plantListRequest, String userId,
+                                     Long expectedVersion) {
         // Both owner and collaborators can update list details
-        if (!plantList.isUserAllowed(userId)) {
-            throw new RuntimeException("Access denied");
-        }
-
-        plantList.setName(plantListRequest.getName());
-        plantList.setDescription(plantListRequest.getDescription());
-
-        return plantListRepository.save(plantList);
+        Update update = new Update()
+                .set("name", plantListRequest.getName())
+                .set("description", plantListRequest.getDescription());
+        PlantList saved = modify(memberOf(listId, userId), update, listId, userId, expectedVersion);
+        eventPublisher.publishEvent(ChangeEvent.forList(ChangeEvent.Type.LIST_UPDATED, saved, null, userId));
+        return saved;
     }
 
-    public void deletePlantList(String listId, String userId) {
+    public void deletePlantList(String listId, String userId, Long expectedVersion) {
         PlantList plantList = getPlantListById(listId, userId);
 
         // Only owner can delete list
         if (!plantList.getOwnerId().equals(userId)) {
             throw new RuntimeException("Only owner can delete list");
         }
+        ETags.checkVersion(expectedVersion, plantList.getVersion());
 
         plantListRepository.delete(plantList);
+        plantAccessIndex.listDeleted(plantList);
+        eventPublisher.publishEvent(ChangeEvent.forList(ChangeEvent.Type.LIST_DELETED, plantList, null, userId));
     }
 
-    public PlantList addPlantToList(String listId, String plantId, String userId) {
-        PlantList plantList = getPlantListById(listId, userId);
-
+    public PlantList addPlantToList(String listId, String plantId, String userId, Long expectedVersion) {
         // Verify plant exists
         if (!plantRepository.existsById(plantId)) {
             throw new RuntimeException("Plant not found");
         }
 
-        plantList.addPlant(plantId);
-        return plantListRepository.save(plantList);
+        PlantList saved = modify(memberOf(listId, userId), new Update().addToSet("plantIds", plantId),
+                listId, userId, expectedVersion);
+        plantAccessIndex.plantAdded(saved, plantId);
+        eventPublisher.publishEvent(ChangeEvent.forList(ChangeEvent.Type.PLANT_ADDED_TO_LIST, saved, plantId, userId));
+        return saved;
     }
 
-    public PlantList removePlantFromList(String listId, String plantId, String userId) {
-        PlantList plantList = getPlantListById(listId, userId);
-
-        plantList.removePlant(plantId);
-        return plantListRepository.save(plantList);
+    public PlantList removePlantFromList(String listId, String plantId, String userId, Long expectedVersion) {
+        PlantList saved = modify(memberOf(listId, userId), new Update().pull("plantIds", plantId),
+                listId, userId, expectedVersion);
+        plantAccessIndex.plantRemoved(saved, plantId);
+        eventPublisher.publishEvent(
+                ChangeEvent.forList(ChangeEvent.Type.PLANT_REMOVED_FROM_LIST, saved, plantId, userId));
+        return saved;
     }
 
-    public PlantList addCollaboratorByEmail(String listId, String email, String requesterId) {
-        PlantList plantList = getPlantListById(listId, requesterId);
-
-        // Only owner can add collaborators
-        if (!plantList.getOwnerId().equals(requesterId)) {
+    public PlantList addCollaboratorByEmail(String listId, String email, String requesterId, Long expectedVersion) {
+        // Ownership is checked before the email is resolved, so the lookup cannot be used to probe for registered emails
+        if (!mongoTemplate.exists(ownedBy(listId, requesterId), PlantList.class)) {
+            getPlantListById(listId, requesterId);
             throw new RuntimeException("Only owner can add collaborators");
         }
 
         // Find user by email
+        User user;
         try {
-            var user = userService.getUserByEmail(email);
+            user = userService.getUserByEmail(email);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("No user found with email: " + email);
+        }
 
-            // Don't add owner as collaborator
-            if (user.getId().equals(plantList.getOwnerId())) {
-                throw new RuntimeException("Cannot add owner as collaborator");
-            }
+        // Don't add owner as collaborator
+        if (user.getId().equals(requesterId)) {
+            throw new RuntimeException("Cannot add owner as collaborator");
+        }
 
-            // Check if already a collaborator
-            if (plantList.getCollaboratorIds().contains(user.getId())) {
-                throw new RuntimeException("User is already a collaborator");
+        // Only owner can add collaborators, and only once
+        Query query = withVersion(ownedBy(listId, requesterId), expectedVersion)
+                .addCriteria(Criteria.where("collaboratorIds").ne(user.getId()));
+        PlantList saved = mongoTemplate.findAndModify(query, touch(new Update().addToSet("collaboratorIds", user.getId())),
+                FindAndModifyOptions.options().returnNew(true), PlantList.class);
+        if (saved == null) {
+            PlantList plantList = getPlantListById(listId, requesterId);
+            if (!plantList.getOwnerId().equals(requesterId)) {
+                throw new RuntimeException("Only owner can add collaborators");
             }
+            ETags.checkVersion(expectedVersion, plantList.getVersion());
+            throw new RuntimeException("User is already a collaborator");
+        }
 
-            plantList.addCollaborator(user.getId());
-            return plantListRepository.save(plantList);
-        } catch (RuntimeException e) {
-            if (e.getMessage().contains("User not found")) {
-                throw new RuntimeException("No user found with email: " + email);
+        plantAccessIndex.collaboratorAdded(saved, user.getId());
+        eventPublisher.publishEvent(ChangeEvent.forList(ChangeEvent.Type.COLLABORATOR_ADDED, saved, null, requesterId));
+        return saved;
+    }
+
+    public PlantList removeCollaborator(String listId, String userId, String requesterId, Long expectedVersion) {
+        PlantList saved = mongoTemplate.findAndModify(withVersion(ownedBy(listId, requesterId), expectedVersion),
+                touch(new Update().pull("collaboratorIds", userId)),
+                FindAndModifyOptions.options().returnNew(true), PlantList.class);
+        if (saved == null) {
+            PlantList plantList = getPlantListById(listId, requesterId);
+            if (!plantList.getOwnerId().equals(requesterId)) {
+                throw new RuntimeException("Only owner can remove collaborators");
             }
-            throw e;
+            ETags.checkVersion(expectedVersion, plantList.getVersion());
+            throw new RuntimeException("Plant list was modified concurrently");
         }
+
+        plantAccessIndex.collaboratorRemoved(saved, userId);
+        // The removed collaborator is told as well so their screens drop the list
+        eventPublisher.publishEvent(ChangeEvent.forList(ChangeEvent.Type.COLLABORATOR_REMOVED, saved, null, requesterId)
+                .alsoNotify(userId));
+        return saved;
     }
 
-    public PlantList removeCollaborator(String listId, String userId, String requesterId) {
-        PlantList plantList = getPlantListById(listId, requesterId);
+    // Applies the update in a single round trip; the access rule is part of the filter so concurrent writers cannot race it
+    private PlantList modify(Query query, Update update, String listId, String userId, Long expectedVersion) {
+        PlantList saved = mongoTemplate.findAndModify(withVersion(query, expectedVersion), touch(update),
+                FindAndModifyOptions.options().returnNew(true), PlantList.class);
+        if (saved == null) {
+            // Surfaces "not found", "access denied" or a stale If-Match the same way the read path does
+            PlantList plantList = getPlantListById(listId, userId);
+            ETags.checkVersion(expectedVersion, plantList.getVersion());
+            throw new RuntimeException("Plant list was modified concurrently");
+        }
+        return saved;
+    }
 
-        // Only owner can remove collaborators
-        if (!plantList.getOwnerId().equals(requesterId)) {
-            throw new RuntimeException("Only owner can remove collaborators");
+    private Update touch(Update update) {
+        return update.set("updatedAt", LocalDateTime.now()).inc("version", 1);
+    }
+
+    private Query withVersion(Query query, Long expectedVersion) {
+        if (expectedVersion != null) {
+            query.addCriteria(Criteria.where("version").is(expectedVersion));
         }
+        return query;
+    }
 
-        plantList.removeCollaborator(userId);
-        return plantListRepository.save(plantList);
+    public static Query pageQuery(String userId, String after, int limit) {
+        Criteria criteria = new Criteria().orOperator(
+                Criteria.where("ownerId").is(userId), Criteria.where("collaboratorIds").is(userId));
+        String afterId = CursorPage.decodeCursor(after);
+        if (afterId != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("_id").gt(afterId));
+        }
+        return Query.query(criteria).with(Sort.by("_id")).limit(limit + 1);
+    }
+
+    public static Query memberOf(String listId, String userId) {
+        return Query.query(Criteria.where("_id").is(listId)
+                .orOperator(Criteria.where("ownerId").is(userId), Criteria.where("collaboratorIds").is(userId)));
+    }
+
+    private Query ownedBy(String listId, String userId) {
+        return Query.query(Criteria.where("_id").is(listId).and("ownerId").is(userId));
     }
-}
\ No newline at end of file
+}
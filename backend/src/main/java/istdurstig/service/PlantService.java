@@ -1,19 +1,61 @@
 package istdurstig.service;
 
+import istdurstig.dto.BulkCareEventRequest;
+import istdurstig.dto.BulkCareEventResponse;
 import istdurstig.dto.PlantRequest;
+import istdurstig.dto.PlantSummary;
 import istdurstig.dto.CareEventRequest;
+import istdurstig.dto.CursorPage;
 import istdurstig.factory.CareEventFactory;
 import istdurstig.factory.PlantFactory;
 import istdurstig.model.Plant;
 import istdurstig.model.Schedule;
 import istdurstig.model.CareEvent;
+import istdurstig.model.CareStats;
 import istdurstig.model.PlantList;
+import istdurstig.model.WateringEvent;
+import istdurstig.model.enums.Frequency;
+import istdurstig.repository.CareEventRepository;
 import istdurstig.repository.PlantRepository;
-import istdurstig.repository.PlantListRepository;
+import istdurstig.stream.ChangeEvent;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,106 +64,485 @@ public class PlantService {
     @Autowired
     private PlantRepository plantRepository;
 
-    @Autowired
-    private PlantListRepository plantListRepository;
-
     @Autowired
     private CareEventFactory careEventFactory;
 
     @Autowired
     private PlantFactory plantFactory;
 
+    @Autowired
+    private PlantAccessIndex plantAccessIndex;
+
+    @Autowired
+    private CareEventRepository careEventRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ParallelQueries parallelQueries;
+
     public List<Plant> getAllPlantsForUser(String userId) {
-        List<PlantList> userLists = plantListRepository.findByOwnerIdOrCollaboratorIdsContaining(userId);
-        List<String> plantIds = userLists.stream()
-                .flatMap(list -> list.getPlantIds().stream())
-                .distinct()
-                .collect(Collectors.toList());
-        
+        List<String> plantIds = new ArrayList<>(plantAccessIndex.getAccessiblePlantIds(userId));
         return plantRepository.findByIdIn(plantIds);
     }
 
+    public CursorPage<PlantSummary> getPlantSummariesForUser(String userId, String after, int limit) {
+        PlantAccessIndex.IdPage page = plantAccessIndex.selectPage(userId, after, limit);
+        return new CursorPage<>(mongoTemplate.find(summaryQuery(page.ids()), PlantSummary.class, "plants"),
+                page.nextCursor());
+    }
+
+    // Aggregate ETag of a page, computed from a version-only projection
+    public String getPlantSummariesETag(String userId, String after, int limit) {
+        PlantAccessIndex.IdPage page = plantAccessIndex.selectPage(userId, after, limit);
+        return ETags.forVersions(versionsOf(mongoTemplate.find(versionQuery(page.ids()), Plant.class)),
+                "summaries:" + page.nextCursor());
+    }
+
+    public String getPlantETag(String plantId, String userId, Integer historySize) {
+        if (!hasAccessToPlant(plantId, userId)) {
+            throw new RuntimeException("Access denied");
+        }
+        Plant plant = mongoTemplate.findOne(versionQuery(List.of(plantId)), Plant.class);
+        if (plant == null) {
+            throw new RuntimeException("Plant not found");
+        }
+        return plantETag(plant, historySize);
+    }
+
+    // Returns the plant with only its last historySize care events, reading past the embedded window if needed
+    public Plant getPlantById(String plantId, String userId, int historySize) {
+        if (!hasAccessToPlant(plantId, userId)) {
+            throw new RuntimeException("Access denied");
+        }
+        if (historySize <= Plant.RECENT_HISTORY_SIZE) {
+            Plant plant = mongoTemplate.findOne(plantQuery(plantId, historySize), Plant.class);
+            if (plant == null) {
+                throw new RuntimeException("Plant not found");
+            }
+            return plant;
+        }
+
+        // The plant and the older history are two independent round trips
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            Supplier<Plant> found = scope.fork(() -> mongoTemplate.findOne(plantQuery(plantId, historySize), Plant.class));
+            Supplier<List<CareEvent>> olderHistory =
+                    scope.fork(() -> mongoTemplate.find(historyQuery(plantId, historySize), CareEvent.class));
+            scope.join();
+
+            Plant plant = found.get();
+            if (plant == null) {
+                throw new RuntimeException("Plant not found");
+            }
+            List<CareEvent> history = new ArrayList<>(olderHistory.get());
+            Collections.reverse(history);
+            plant.setCareHistory(history);
+            return plant;
+        }
+    }
+
     public Plant getPlantById(String plantId, String userId) {
-        Plant plant = plantRepository.findById(plantId)
-                .orElseThrow(() -> new RuntimeException("Plant not found"));
-        
         if (!hasAccessToPlant(plantId, userId)) {
             throw new RuntimeException("Access denied");
         }
-        
-        return plant;
+        return plantRepository.findById(plantId).orElseThrow(() -> new RuntimeException("Plant not found"));
+    }
+
+    // Reads only the maintained aggregates, never the care history
+    public CareStats getCareStats(String plantId, String userId) {
+        if (!hasAccessToPlant(plantId, userId)) {
+            throw new RuntimeException("Access denied");
+        }
+        return statsOf(mongoTemplate.findOne(statsQuery(plantId), Plant.class));
     }
 
     public Plant createPlant(PlantRequest plantRequest, String userId) {
+        plantRequest.setPhotoUrl(photoService.toPhotoReference(plantRequest.getPhotoUrl()));
         Plant plant = plantFactory.createPlant(plantRequest);
         return plantRepository.save(plant);
     }
 
-    public Plant updatePlant(String plantId, PlantRequest plantRequest, String userId) {
+    public Plant updatePlant(String plantId, PlantRequest plantRequest, String userId, Long expectedVersion) {
         Plant plant = getPlantById(plantId, userId);
+        ETags.checkVersion(expectedVersion, plant.getVersion());
+        plantRequest.setPhotoUrl(photoService.toPhotoReference(plantRequest.getPhotoUrl()));
         plantFactory.updatePlant(plant, plantRequest);
-        return plantRepository.save(plant);
+        Plant saved;
+        try {
+            saved = plantRepository.save(plant);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Plant was modified concurrently");
+        }
+        eventPublisher.publishEvent(
+                ChangeEvent.forPlant(ChangeEvent.Type.PLANT_UPDATED, plantId, saved.getVersion(), userId));
+        return saved;
     }
 
-    public void deletePlant(String plantId, String userId) {
-        Plant plant = getPlantById(plantId, userId);
+    public void deletePlant(String plantId, String userId, Long expectedVersion) {
+        if (!hasAccessToPlant(plantId, userId)) {
+            throw new RuntimeException("Access denied");
+        }
+        Query containing = listsContaining(plantId);
+        containing.fields().include("ownerId", "collaboratorIds");
+        Plant existing;
+        List<PlantList> listsContainingPlant;
+        try (ParallelQueries.Scope scope = parallelQueries.open()) {
+            Supplier<Plant> version = scope.fork(() -> mongoTemplate.findOne(versionQuery(List.of(plantId)), Plant.class));
+            Supplier<List<PlantList>> lists = scope.fork(() -> mongoTemplate.find(containing, PlantList.class));
+            scope.join();
+            existing = version.get();
+            listsContainingPlant = lists.get();
+        }
+        if (existing == null) {
+            throw new RuntimeException("Plant not found");
+        }
+        ETags.checkVersion(expectedVersion, existing.getVersion());
         
-        // Remove plant from all lists
-        List<PlantList> listsContainingPlant = plantListRepository.findByOwnerIdOrCollaboratorIdsContaining(userId)
-                .stream()
-                .filter(list -> list.getPlantIds().contains(plantId))
-                .collect(Collectors.toList());
+        // Remove plant from all lists with a single $pull
+        mongoTemplate.updateMulti(listsContaining(plantId),
+                new Update().pull("plantIds", plantId).set("updatedAt", LocalDateTime.now()).inc("version", 1),
+                PlantList.class);
         
+        // Recipients are resolved up front, the access index no longer knows them once the plant is gone
+        ChangeEvent deleted = ChangeEvent.forPlant(ChangeEvent.Type.PLANT_DELETED, plantId, null, userId);
         for (PlantList list : listsContainingPlant) {
-            list.removePlant(plantId);
-            plantListRepository.save(list);
+            plantAccessIndex.plantRemoved(list, plantId);
+            deleted.alsoNotify(list.getOwnerId());
+            if (list.getCollaboratorIds() != null) {
+                list.getCollaboratorIds().forEach(deleted::alsoNotify);
+            }
         }
         
-        plantRepository.delete(plant);
+        plantRepository.deleteById(plantId);
+        careEventRepository.deleteByPlantId(plantId);
+        eventPublisher.publishEvent(deleted);
     }
 
-    public Plant addCareEvent(String plantId, CareEventRequest careEventRequest, String userId) {
-        Plant plant = getPlantById(plantId, userId);
-        CareEvent careEvent;
+    public Plant addCareEvent(String plantId, CareEventRequest careEventRequest, String userId, Long expectedVersion) {
+        if (!hasAccessToPlant(plantId, userId)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        CareEvent careEvent = buildCareEvent(careEventRequest, userId);
+        careEvent.setId(new ObjectId().toHexString());
+        careEvent.setPlantId(plantId);
+
+        Query query = Query.query(Criteria.where("_id").is(plantId));
+        if (expectedVersion != null) {
+            query.addCriteria(Criteria.where("version").is(expectedVersion));
+        }
+        // The event is stored before the plant trims its embedded window, and removed again if the plant update fails
+        careEventRepository.insert(careEvent);
+        Plant plant;
+        try {
+            plant = mongoTemplate.findAndModify(query, careEventUpdate(List.of(careEvent), mongoTemplate.getConverter()),
+                    FindAndModifyOptions.options().returnNew(true), Plant.class);
+        } catch (RuntimeException e) {
+            careEventRepository.deleteById(careEvent.getId());
+            throw e;
+        }
+        if (plant == null) {
+            careEventRepository.deleteById(careEvent.getId());
+            if (expectedVersion != null && plantRepository.existsById(plantId)) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Plant was modified");
+            }
+            throw new RuntimeException("Plant not found");
+        }
+
+        eventPublisher.publishEvent(
+                ChangeEvent.forPlant(ChangeEvent.Type.CARE_EVENT_ADDED, plantId, plant.getVersion(), userId));
+        return plant;
+    }
+
+    public BulkCareEventResponse addCareEventsBulk(BulkCareEventRequest request, String userId) {
+        List<BulkCareEventRequest.Item> items = request.getItems();
+        BulkCareEventResponse.ItemResult[] results = new BulkCareEventResponse.ItemResult[items.size()];
+
+        // Events are grouped per plant, in request order, so every plant gets a single update
+        Map<String, List<CareEvent>> eventsByPlant = new LinkedHashMap<>();
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            String plantId = items.get(i).getPlantId();
+            if (!hasAccessToPlant(plantId, userId)) {
+                results[i] = new BulkCareEventResponse.ItemResult(plantId, false, null, "Access denied");
+                continue;
+            }
+
+            CareEvent careEvent;
+            try {
+                careEvent = buildCareEvent(items.get(i).getEvent(), userId);
+            } catch (RuntimeException e) {
+                results[i] = new BulkCareEventResponse.ItemResult(plantId, false, null, "Invalid care event");
+                continue;
+            }
+            careEvent.setId(new ObjectId().toHexString());
+            careEvent.setPlantId(plantId);
+            eventsByPlant.computeIfAbsent(plantId, id -> new ArrayList<>()).add(careEvent);
+            positions.put(careEvent.getId(), i);
+        }
+
+        if (!eventsByPlant.isEmpty()) {
+            List<String> plantIds = new ArrayList<>(eventsByPlant.keySet());
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Plant.class);
+            for (String plantId : plantIds) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(plantId)),
+                        careEventUpdate(eventsByPlant.get(plantId), mongoTemplate.getConverter()));
+            }
+
+            // Stored before the plants trim their embedded windows; the events of failed updates are removed again
+            List<CareEvent> careEvents = eventsByPlant.values().stream().flatMap(List::stream).toList();
+            careEventRepository.insert(careEvents);
+            Set<Integer> failedOperations = new HashSet<>();
+            BulkWriteResult result;
+            try {
+                result = bulk.execute();
+            } catch (BulkOperationException e) {
+                e.getErrors().forEach(error -> failedOperations.add(error.getIndex()));
+                result = e.getResult();
+            } catch (RuntimeException e) {
+                removeCareEvents(careEvents);
+                throw e;
+            }
+
+            // The result only has a total; when an update matched nothing, find the plants that do not exist
+            Set<String> missingPlants = new HashSet<>();
+            if (result.getMatchedCount() < plantIds.size() - failedOperations.size()) {
+                Set<String> updatedIds = new HashSet<>();
+                for (int op = 0; op < plantIds.size(); op++) {
+                    if (!failedOperations.contains(op)) {
+                        updatedIds.add(plantIds.get(op));
+                    }
+                }
+                Query existing = Query.query(Criteria.where("_id").in(updatedIds));
+                existing.fields().include("_id");
+                Set<String> existingIds = mongoTemplate.find(existing, Plant.class).stream()
+                        .map(Plant::getId)
+                        .collect(Collectors.toSet());
+                updatedIds.stream().filter(id -> !existingIds.contains(id)).forEach(missingPlants::add);
+            }
+
+            List<CareEvent> failed = new ArrayList<>();
+            for (int op = 0; op < plantIds.size(); op++) {
+                String plantId = plantIds.get(op);
+                String error = failedOperations.contains(op) ? "Update failed"
+                        : missingPlants.contains(plantId) ? "Plant not found" : null;
+                for (CareEvent careEvent : eventsByPlant.get(plantId)) {
+                    results[positions.get(careEvent.getId())] = new BulkCareEventResponse.ItemResult(
+                            plantId, error == null, error == null ? careEvent.getId() : null, error);
+                    if (error != null) {
+                        failed.add(careEvent);
+                    }
+                }
+                if (error == null) {
+                    eventPublisher.publishEvent(
+                            ChangeEvent.forPlant(ChangeEvent.Type.CARE_EVENT_ADDED, plantId, null, userId));
+                }
+            }
+            removeCareEvents(failed);
+        }
+
+        int succeeded = (int) Arrays.stream(results).filter(BulkCareEventResponse.ItemResult::isSuccess).count();
+        return new BulkCareEventResponse(succeeded, results.length - succeeded, Arrays.asList(results));
+    }
+
+    private void removeCareEvents(List<CareEvent> careEvents) {
+        if (!careEvents.isEmpty()) {
+            List<String> ids = careEvents.stream().map(CareEvent::getId).toList();
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), CareEvent.class);
+        }
+    }
+
+    public Page<CareEvent> getCareEvents(String plantId, String userId, int page, int size) {
+        if (!hasAccessToPlant(plantId, userId)) {
+            throw new RuntimeException("Access denied");
+        }
+        return careEventRepository.findByPlantIdOrderByTimestampDesc(plantId, PageRequest.of(page, size));
+    }
+
+    // Same rule as Schedule.needsWatering evaluated on the given day
+    // The due plants among the next page of accessible ids, so a page may hold fewer than limit plants
+    public CursorPage<Plant> getPlantsDueBefore(String userId, LocalDate date, String after, int limit) {
+        PlantAccessIndex.IdPage page = plantAccessIndex.selectPage(userId, after, limit);
+        return new CursorPage<>(mongoTemplate.find(dueQuery(page.ids(), date), Plant.class), page.nextCursor());
+    }
+
+    public String getPlantsDueETag(String userId, LocalDate date, String after, int limit) {
+        PlantAccessIndex.IdPage page = plantAccessIndex.selectPage(userId, after, limit);
+        Query query = dueQuery(page.ids(), date);
+        query.fields().include("version");
+        return ETags.forVersions(versionsOf(mongoTemplate.find(query, Plant.class)),
+                "due:" + date + ":" + page.nextCursor());
+    }
+
+    public static Query summaryQuery(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids)).with(Sort.by("_id"));
+        query.fields()
+                .include("name", "type", "tags", "notes", "photoUrl", "schedule", "nextWateringDate")
+                .slice("careHistory", -1);
+        return query;
+    }
+
+    public static Query versionQuery(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids)).with(Sort.by("_id"));
+        query.fields().include("version");
+        return query;
+    }
+
+    public static Query plantQuery(String plantId, int historySize) {
+        Query query = Query.query(Criteria.where("_id").is(plantId));
+        if (historySize <= Plant.RECENT_HISTORY_SIZE) {
+            query.fields().slice("careHistory", -historySize);
+        } else {
+            query.fields().exclude("careHistory");
+        }
+        return query;
+    }
+
+    // Newest events first; a plain limit, since a page would also count the whole history
+    public static Query historyQuery(String plantId, int historySize) {
+        return Query.query(Criteria.where("plantId").is(plantId))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                .limit(historySize);
+    }
+
+    static String plantETag(Plant plant, Integer historySize) {
+        return historySize != null
+                ? ETags.forVersion(plant.getVersion(), "h" + historySize)
+                : ETags.forVersion(plant.getVersion());
+    }
+
+    public static Query dueQuery(Collection<String> plantIds, LocalDate date) {
+        return Query.query(Criteria.where("_id").in(plantIds).orOperator(
+                        Criteria.where("nextWateringDate").is(null),
+                        Criteria.where("nextWateringDate").lt(date)))
+                .with(Sort.by("_id"));
+    }
+
+    static Map<String, Long> versionsOf(List<Plant> plants) {
+        Map<String, Long> versions = new LinkedHashMap<>();
+        for (Plant plant : plants) {
+            versions.put(plant.getId(), plant.getVersion());
+        }
+        return versions;
+    }
+
+    // One update pipeline with a $set stage per event, each seeing what the previous stage left. Counts, sums and last
+    // timestamps are added to the stored values and the watering interval average is computed from the stored last
+    // watering, so the update needs no prior read and concurrent care events never overwrite each other's stats.
+    // The version moves once per update
+    static AggregationUpdate careEventUpdate(List<CareEvent> careEvents, MongoConverter converter) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        for (CareEvent careEvent : careEvents) {
+            Object timestamp = converter.convertToMongoType(careEvent.getTimestamp());
+            String typeStats = "careStats.byType." + careEvent.getType().name();
+            Document set = new Document("careHistory", new Document("$slice", List.of(
+                    new Document("$concatArrays", List.of(
+                            new Document("$ifNull", List.of("$careHistory", List.of())),
+                            List.of(new Document("$literal", converter.convertToMongoType(careEvent))))),
+                    -Plant.RECENT_HISTORY_SIZE)))
+                    .append(typeStats + ".count", plus(typeStats + ".count", 1))
+                    .append(typeStats + ".last", new Document("$max", List.of("$" + typeStats + ".last", timestamp)));
+            if (careEvent instanceof WateringEvent watering) {
+                LocalDate lastWatered = careEvent.getTimestamp().toLocalDate();
+                set.append("careStats.totalWateredLiters", plus("careStats.totalWateredLiters", watering.getAmountLiters()))
+                        .append("careStats.wateringIntervalDays", nextWateringInterval(timestamp))
+                        .append("schedule.lastWatered", converter.convertToMongoType(lastWatered))
+                        .append("nextWateringDate", nextWateringDate(lastWatered, converter));
+            }
+            stages.add(context -> new Document("$set", set));
+        }
+        return AggregationUpdate.from(stages)
+                .set("updatedAt").toValue(converter.convertToMongoType(LocalDateTime.now()))
+                .set("version").toValue(ArithmeticOperators.valueOf(ConditionalOperators.ifNull("version").then(0)).add(1));
+    }
+
+    private static Document plus(String field, Number amount) {
+        return new Document("$add", List.of(new Document("$ifNull", List.of("$" + field, 0)), amount));
+    }
+
+    // CareStats.nextWateringInterval over the stored values: the first interval as is, later ones blended in with
+    // INTERVAL_EMA_WEIGHT, and an event older than the last watering leaves the average unchanged
+    private static Document nextWateringInterval(Object timestamp) {
+        Document lastWatered = new Document("$ifNull", Arrays.asList("$careStats.byType.WATERING.last", null));
+        Document average = new Document("$ifNull", Arrays.asList("$careStats.wateringIntervalDays", null));
+        Document days = new Document("$divide", List.of(
+                new Document("$subtract", List.of(timestamp, "$$last")), 86_400_000.0));
+        Document blended = new Document("$add", List.of(
+                new Document("$multiply", List.of(CareStats.INTERVAL_EMA_WEIGHT, days)),
+                new Document("$multiply", List.of(1 - CareStats.INTERVAL_EMA_WEIGHT, "$$average"))));
+        Document next = new Document("$cond", List.of(
+                new Document("$and", List.of(
+                        new Document("$ne", Arrays.asList("$$last", null)),
+                        new Document("$gt", List.of(timestamp, "$$last")))),
+                new Document("$cond", List.of(new Document("$eq", Arrays.asList("$$average", null)), days, blended)),
+                "$$average"));
+        return new Document("$let", new Document("vars", new Document("last", lastWatered).append("average", average))
+                .append("in", next));
+    }
+
+    // The candidate dates are computed here for every frequency and the stored schedule picks one; a plant without
+    // a frequency keeps its nextWateringDate
+    private static Document nextWateringDate(LocalDate lastWatered, MongoConverter converter) {
+        List<Document> branches = new ArrayList<>();
+        for (Frequency frequency : Frequency.values()) {
+            branches.add(new Document("case", new Document("$eq", List.of("$schedule.frequency", frequency.name())))
+                    .append("then", converter.convertToMongoType(
+                            new Schedule(frequency, lastWatered).getNextWateringDate())));
+        }
+        return new Document("$switch", new Document("branches", branches).append("default", "$nextWateringDate"));
+    }
+
+    public static Query statsQuery(String plantId) {
+        Query query = Query.query(Criteria.where("_id").is(plantId));
+        query.fields().include("careStats");
+        return query;
+    }
+
+    // Plant lists that hold the plant, matched through the plantIds multikey index
+    public static Query listsContaining(String plantId) {
+        return Query.query(Criteria.where("plantIds").is(plantId));
+    }
+
+    // Plants created before the stats existed read as empty until CareStatsMigration has run
+    static CareStats statsOf(Plant plant) {
+        if (plant == null) {
+            throw new RuntimeException("Plant not found");
+        }
+        return plant.getCareStats() != null ? plant.getCareStats() : new CareStats();
+    }
+
+    CareEvent buildCareEvent(CareEventRequest careEventRequest, String userId) {
         switch (careEventRequest.getType()) {
             case WATERING:
                 Double amount = (Double) careEventRequest.getAdditionalData().get("amount");
-                careEvent = careEventFactory.createCareEvent(
+                return careEventFactory.createCareEvent(
                     careEventRequest.getNotes(), userId, amount != null ? amount : 0.0
                 );
-                break;
             case FERTILIZING:
                 String fertilizerType = (String) careEventRequest.getAdditionalData().get("fertilizerType");
-                careEvent = careEventFactory.createCareEvent(
+                return careEventFactory.createCareEvent(
                     careEventRequest.getNotes(), userId, fertilizerType != null ? fertilizerType : ""
                 );
-                break;
             case TRANSPLANTING:
                 String potSize = (String) careEventRequest.getAdditionalData().get("potSize");
                 String soilType = (String) careEventRequest.getAdditionalData().get("soilType");
-                careEvent = careEventFactory.createCareEvent(
+                return careEventFactory.createCareEvent(
                     careEventRequest.getNotes(), userId,
                     potSize != null ? potSize : "", soilType != null ? soilType : ""
                 );
-                break;
             default:
                 throw new IllegalArgumentException("Unknown care event type: " + careEventRequest.getType());
         }
-
-        plant.addCareEvent(careEvent);
-        return plantRepository.save(plant);
-    }
-
-    public List<Plant> getPlantsDueToday(String userId) {
-        List<Plant> userPlants = getAllPlantsForUser(userId);
-        return userPlants.stream()
-                .filter(Plant::needsWatering)
-                .collect(Collectors.toList());
     }
 
     private boolean hasAccessToPlant(String plantId, String userId) {
-        List<PlantList> userLists = plantListRepository.findByOwnerIdOrCollaboratorIdsContaining(userId);
-        return userLists.stream()
-                .anyMatch(list -> list.getPlantIds().contains(plantId));
+        return plantAccessIndex.hasAccess(userId, plantId);
     }
 }
\ No newline at end of file
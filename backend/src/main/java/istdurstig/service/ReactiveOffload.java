@@ -0,0 +1,32 @@
+package istdurstig.service;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+// Bridges the blocking services into the reactive controllers without ever blocking an event-loop thread
+public final class ReactiveOffload {
+
+    private ReactiveOffload() {
+    }
+
+    public static <T> Mono<T> call(Callable<T> call) {
+        return Mono.fromCallable(() -> {
+            try {
+                return call.call();
+            } finally {
+                // AuthService sets a thread-local context that must not leak onto the pooled thread
+                SecurityContextHolder.clearContext();
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public static Mono<Void> run(Runnable task) {
+        return call(() -> {
+            task.run();
+            return Boolean.TRUE;
+        }).then();
+    }
+}
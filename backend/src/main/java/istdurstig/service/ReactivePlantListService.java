@@ -0,0 +1,69 @@
+package istdurstig.service;
+
+import istdurstig.dto.CursorPage;
+import istdurstig.model.PlantList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Non-blocking versions of the list reads, used by the reactive profile
+@Service
+@Profile("reactive")
+public class ReactivePlantListService {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public Mono<CursorPage<PlantList>> getPlantListsForUser(String userId, String after, int limit) {
+        return reactiveMongoTemplate.find(PlantListService.pageQuery(userId, after, limit), PlantList.class)
+                .collectList()
+                .map(plantLists -> {
+                    String nextCursor = null;
+                    if (plantLists.size() > limit) {
+                        plantLists = plantLists.subList(0, limit);
+                        nextCursor = CursorPage.encodeCursor(plantLists.get(limit - 1).getId());
+                    }
+                    return new CursorPage<>(plantLists, nextCursor);
+                });
+    }
+
+    public Mono<String> getPlantListsETag(String userId, String after, int limit) {
+        Query query = PlantListService.pageQuery(userId, after, limit);
+        query.fields().include("version");
+        return reactiveMongoTemplate.find(query, PlantList.class)
+                .collectList()
+                .map(plantLists -> {
+                    Map<String, Long> versions = new LinkedHashMap<>();
+                    for (PlantList plantList : plantLists) {
+                        versions.put(plantList.getId(), plantList.getVersion());
+                    }
+                    return ETags.forVersions(versions, "lists:" + limit);
+                });
+    }
+
+    public Mono<String> getPlantListETag(String listId, String userId) {
+        Query query = Query.query(Criteria.where("_id").is(listId));
+        query.fields().include("ownerId", "collaboratorIds", "version");
+        return checkAllowed(reactiveMongoTemplate.findOne(query, PlantList.class), userId)
+                .map(plantList -> ETags.forVersion(plantList.getVersion()));
+    }
+
+    public Mono<PlantList> getPlantListById(String listId, String userId) {
+        return checkAllowed(reactiveMongoTemplate.findById(listId, PlantList.class), userId);
+    }
+
+    private Mono<PlantList> checkAllowed(Mono<PlantList> plantList, String userId) {
+        return plantList
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Plant list not found")))
+                .flatMap(found -> found.isUserAllowed(userId)
+                        ? Mono.just(found)
+                        : Mono.error(new RuntimeException("Access denied")));
+    }
+}
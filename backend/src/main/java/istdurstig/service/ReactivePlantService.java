@@ -0,0 +1,171 @@
+package istdurstig.service;
+
+import istdurstig.dto.CareEventRequest;
+import istdurstig.dto.CursorPage;
+import istdurstig.dto.PlantSummary;
+import istdurstig.model.CareEvent;
+import istdurstig.model.CareStats;
+import istdurstig.model.Plant;
+import istdurstig.stream.ChangeEvent;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking versions of the hot read and care-event paths of {@link PlantService}, used by the reactive profile.
+ * Queries are built by PlantService so both execution modes send Mongo exactly the same commands.
+ */
+@Service
+@Profile("reactive")
+public class ReactivePlantService {
+
+    @Autowired
+    private PlantService plantService;
+
+    @Autowired
+    private PlantAccessIndex plantAccessIndex;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Mono<CursorPage<PlantSummary>> getPlantSummariesForUser(String userId, String after, int limit) {
+        return fromIndex(userId, () -> plantAccessIndex.selectPage(userId, after, limit))
+                .flatMap(page -> reactiveMongoTemplate
+                        .find(PlantService.summaryQuery(page.ids()), PlantSummary.class, "plants")
+                        .collectList()
+                        .map(summaries -> new CursorPage<>(summaries, page.nextCursor())));
+    }
+
+    public Mono<String> getPlantSummariesETag(String userId, String after, int limit) {
+        return fromIndex(userId, () -> plantAccessIndex.selectPage(userId, after, limit))
+                .flatMap(page -> reactiveMongoTemplate
+                        .find(PlantService.versionQuery(page.ids()), Plant.class)
+                        .collectList()
+                        .map(plants -> ETags.forVersions(PlantService.versionsOf(plants),
+                                "summaries:" + page.nextCursor())));
+    }
+
+    public Mono<String> getPlantETag(String plantId, String userId, Integer historySize) {
+        return checkAccess(plantId, userId)
+                .then(reactiveMongoTemplate.findOne(PlantService.versionQuery(List.of(plantId)), Plant.class))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Plant not found")))
+                .map(plant -> PlantService.plantETag(plant, historySize));
+    }
+
+    public Mono<Plant> getPlantById(String plantId, String userId) {
+        return checkAccess(plantId, userId)
+                .then(reactiveMongoTemplate.findById(plantId, Plant.class))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Plant not found")));
+    }
+
+    public Mono<Plant> getPlantById(String plantId, String userId, int historySize) {
+        Mono<Plant> plant = reactiveMongoTemplate.findOne(PlantService.plantQuery(plantId, historySize), Plant.class)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Plant not found")));
+        if (historySize <= Plant.RECENT_HISTORY_SIZE) {
+            return checkAccess(plantId, userId).then(plant);
+        }
+
+        // Both reads start only once access is granted, then run concurrently
+        Mono<List<CareEvent>> olderHistory = reactiveMongoTemplate
+                .find(PlantService.historyQuery(plantId, historySize), CareEvent.class)
+                .collectList();
+        return checkAccess(plantId, userId).then(plant.zipWith(olderHistory, (found, events) -> {
+            List<CareEvent> history = new ArrayList<>(events);
+            Collections.reverse(history);
+            found.setCareHistory(history);
+            return found;
+        }));
+    }
+
+    public Mono<CursorPage<Plant>> getPlantsDueBefore(String userId, LocalDate date, String after, int limit) {
+        return fromIndex(userId, () -> plantAccessIndex.selectPage(userId, after, limit))
+                .flatMap(page -> reactiveMongoTemplate
+                        .find(PlantService.dueQuery(page.ids(), date), Plant.class)
+                        .collectList()
+                        .map(plants -> new CursorPage<>(plants, page.nextCursor())));
+    }
+
+    public Mono<String> getPlantsDueETag(String userId, LocalDate date, String after, int limit) {
+        return fromIndex(userId, () -> plantAccessIndex.selectPage(userId, after, limit))
+                .flatMap(page -> {
+                    Query query = PlantService.dueQuery(page.ids(), date);
+                    query.fields().include("version");
+                    return reactiveMongoTemplate.find(query, Plant.class)
+                            .collectList()
+                            .map(plants -> ETags.forVersions(PlantService.versionsOf(plants),
+                                    "due:" + date + ":" + page.nextCursor()));
+                });
+    }
+
+    public Mono<Plant> addCareEvent(String plantId, CareEventRequest careEventRequest, String userId,
+                                    Long expectedVersion) {
+        return checkAccess(plantId, userId).then(Mono.defer(() -> {
+            CareEvent careEvent = plantService.buildCareEvent(careEventRequest, userId);
+            careEvent.setId(new ObjectId().toHexString());
+            careEvent.setPlantId(plantId);
+
+            Query query = Query.query(Criteria.where("_id").is(plantId));
+            if (expectedVersion != null) {
+                query.addCriteria(Criteria.where("version").is(expectedVersion));
+            }
+            // The event is stored before the plant trims its embedded window, and removed again if the plant update fails
+            return reactiveMongoTemplate.insert(careEvent)
+                    .then(reactiveMongoTemplate.findAndModify(query,
+                            PlantService.careEventUpdate(List.of(careEvent), reactiveMongoTemplate.getConverter()),
+                            FindAndModifyOptions.options().returnNew(true), Plant.class))
+                    .switchIfEmpty(Mono.defer(() -> notModified(plantId, expectedVersion)))
+                    .onErrorResume(e -> reactiveMongoTemplate
+                            .remove(Query.query(Criteria.where("_id").is(careEvent.getId())), CareEvent.class)
+                            .then(Mono.error(e)))
+                    .doOnNext(plant -> eventPublisher.publishEvent(ChangeEvent.forPlant(
+                            ChangeEvent.Type.CARE_EVENT_ADDED, plantId, plant.getVersion(), userId)));
+        }));
+    }
+
+    public Mono<CareStats> getCareStats(String plantId, String userId) {
+        return checkAccess(plantId, userId)
+                .then(reactiveMongoTemplate.findOne(PlantService.statsQuery(plantId), Plant.class))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Plant not found")))
+                .map(PlantService::statsOf);
+    }
+
+    private Mono<Plant> notModified(String plantId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(new RuntimeException("Plant not found"));
+        }
+        return reactiveMongoTemplate.exists(Query.query(Criteria.where("_id").is(plantId)), Plant.class)
+                .flatMap(exists -> Mono.error(exists
+                        ? new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Plant was modified")
+                        : new RuntimeException("Plant not found")));
+    }
+
+    private Mono<Void> checkAccess(String plantId, String userId) {
+        return fromIndex(userId, () -> plantAccessIndex.hasAccess(userId, plantId))
+                .flatMap(allowed -> allowed ? Mono.<Void>empty() : Mono.<Void>error(new RuntimeException("Access denied")));
+    }
+
+    // The access index is in memory once a user is loaded; only the first load is moved off the event loop
+    private <T> Mono<T> fromIndex(String userId, Supplier<T> read) {
+        return plantAccessIndex.isLoaded(userId)
+                ? Mono.fromSupplier(read)
+                : ReactiveOffload.call(read::get);
+    }
+}
@@ -0,0 +1,78 @@
+package istdurstig.service;
+
+import istdurstig.dto.UserSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of prefix search results for the share dialog's typeahead.
+ * A cached result that was not cut off by the cap holds every match for its prefix, so longer prefixes typed
+ * afterwards are answered by filtering it instead of querying again. Registration clears the cache.
+ */
+@Component
+public class UserSearchCache {
+
+    @Value("${app.userSearchCacheMaxEntries:1000}")
+    private int maxEntries;
+
+    @Value("${app.userSearchCacheTtlMs:30000}")
+    private long ttlMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(List<UserSummary> users, boolean complete, long expiresAt) {
+    }
+
+    public List<UserSummary> get(String prefix) {
+        long now = System.currentTimeMillis();
+        for (int length = prefix.length(); length > 0; length--) {
+            String candidate = prefix.substring(0, length);
+            Entry entry = entries.get(candidate);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.expiresAt() <= now) {
+                entries.remove(candidate, entry);
+                continue;
+            }
+            if (length == prefix.length()) {
+                return entry.users();
+            }
+            if (entry.complete()) {
+                return entry.users().stream()
+                        .filter(user -> user.getEmail().toLowerCase(Locale.ROOT).startsWith(prefix))
+                        .collect(Collectors.toList());
+            }
+        }
+        return null;
+    }
+
+    public void put(String prefix, List<UserSummary> users, boolean complete) {
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(prefix, new Entry(List.copyOf(users), complete, System.currentTimeMillis() + ttlMs));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
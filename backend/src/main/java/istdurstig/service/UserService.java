@@ -1,9 +1,14 @@
 package istdurstig.service;
 
 
+import istdurstig.dto.UserSummary;
 import istdurstig.model.User;
 import istdurstig.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,11 +16,30 @@ import java.util.List;
 @Service
 public class UserService {
 
+    public static final int MAX_SEARCH_RESULTS = 20;
+
     @Autowired
     private UserRepository userRepository;
 
-    public List<User> searchUsersByEmail(String email) {
-        return userRepository.findByEmailContainingIgnoreCase(email);
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserSearchCache userSearchCache;
+
+    // Anchored range on the lowercased email, so the lookup walks the emailLower index instead of scanning users
+    public List<UserSummary> searchUsersByEmailPrefix(String prefix, int limit) {
+        String normalized = User.normalizeEmail(prefix);
+        if (normalized == null || normalized.isEmpty()) {
+            return List.of();
+        }
+
+        List<UserSummary> users = userSearchCache.get(normalized);
+        if (users == null) {
+            users = mongoTemplate.find(prefixQuery(normalized), UserSummary.class, "users");
+            userSearchCache.put(normalized, users, users.size() < MAX_SEARCH_RESULTS);
+        }
+        return users.size() > limit ? users.subList(0, limit) : users;
     }
 
     public User getUserById(String id) {
@@ -23,8 +47,27 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    // Public view of a user; the password hash is never read
+    public UserSummary getUserSummary(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("email", "firstName", "lastName");
+        UserSummary user = mongoTemplate.findOne(query, UserSummary.class, "users");
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        return user;
+    }
+
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
     }
-}
\ No newline at end of file
+
+    public static Query prefixQuery(String normalized) {
+        Query query = Query.query(Criteria.where("emailLower").gte(normalized).lt(normalized + Character.MAX_VALUE))
+                .with(Sort.by("emailLower"))
+                .limit(MAX_SEARCH_RESULTS);
+        query.fields().include("email", "firstName", "lastName");
+        return query;
+    }
+}
@@ -0,0 +1,69 @@
+package istdurstig.stream;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import istdurstig.model.PlantList;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+// Compact change notification pushed to /api/stream subscribers
+@Data
+@NoArgsConstructor
+public class ChangeEvent {
+
+    public enum Type {
+        PLANT_UPDATED,
+        PLANT_DELETED,
+        CARE_EVENT_ADDED,
+        LIST_UPDATED,
+        LIST_DELETED,
+        PLANT_ADDED_TO_LIST,
+        PLANT_REMOVED_FROM_LIST,
+        COLLABORATOR_ADDED,
+        COLLABORATOR_REMOVED,
+        RESYNC
+    }
+
+    private Type type;
+    private String plantId;
+    private String listId;
+    private Long version;
+    private String actorId;
+    private LocalDateTime timestamp;
+
+    // Users to notify; when null the plant's current readers are resolved through the access index
+    @JsonIgnore
+    private Set<String> recipients;
+
+    public static ChangeEvent forPlant(Type type, String plantId, Long version, String actorId) {
+        ChangeEvent event = new ChangeEvent();
+        event.type = type;
+        event.plantId = plantId;
+        event.version = version;
+        event.actorId = actorId;
+        event.timestamp = LocalDateTime.now();
+        return event;
+    }
+
+    public static ChangeEvent forList(Type type, PlantList list, String plantId, String actorId) {
+        ChangeEvent event = forPlant(type, plantId, list.getVersion(), actorId);
+        event.listId = list.getId();
+        event.recipients = new HashSet<>();
+        event.recipients.add(list.getOwnerId());
+        if (list.getCollaboratorIds() != null) {
+            event.recipients.addAll(list.getCollaboratorIds());
+        }
+        return event;
+    }
+
+    public ChangeEvent alsoNotify(String userId) {
+        if (recipients == null) {
+            recipients = new HashSet<>();
+        }
+        recipients.add(userId);
+        return this;
+    }
+}
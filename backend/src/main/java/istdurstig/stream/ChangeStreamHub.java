@@ -0,0 +1,246 @@
+package istdurstig.stream;
+
+import istdurstig.service.PlantAccessIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans change events out to the open /api/stream connections.
+ * Publishing only hands the event to a single dispatcher thread, which resolves the recipients in order and
+ * enqueues into a bounded per-connection buffer; a small sender pool drains the buffers, so neither recipient
+ * lookups nor a slow client ever block the writer that produced the event. When a buffer overflows it is cleared
+ * and the client receives a single RESYNC event telling it to refetch instead of an unbounded backlog.
+ * Recipients are resolved from access index entries already in memory only. A connected user whose entry has
+ * expired gets a RESYNC instead, and the entry is reloaded on the sender pool.
+ * SSE connections are only served by the servlet stack.
+ */
+@Component
+@Profile("!reactive")
+public class ChangeStreamHub {
+
+    @Autowired
+    private PlantAccessIndex plantAccessIndex;
+
+    @Value("${app.stream.bufferSize:256}")
+    private int bufferSize;
+
+    @Value("${app.stream.maxConnectionsPerUser:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.stream.timeoutMs:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.stream.heartbeatMs:25000}")
+    private long heartbeatMs;
+
+    @Value("${app.stream.senderThreads:4}")
+    private int senderThreads;
+
+    // Local events are ignored when the Mongo change stream is the source, otherwise they would arrive twice
+    @Value("${app.stream.change-streams:false}")
+    private boolean changeStreamsEnabled;
+
+    private final Map<String, Set<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private ExecutorService dispatcher;
+    private ExecutorService sender;
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void init() {
+        dispatcher = Executors.newSingleThreadExecutor();
+        sender = Executors.newFixedThreadPool(senderThreads);
+        heartbeat = Executors.newSingleThreadScheduledExecutor();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(s -> s.emitter.complete()));
+    }
+
+    public SseEmitter subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(userId, emitter, bufferSize);
+        // The limit check and the add happen under the map's lock for this user, as does unsubscribe
+        subscriptionsByUser.compute(userId, (id, subscriptions) -> {
+            Set<Subscription> current = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+            if (current.size() >= maxConnectionsPerUser) {
+                throw new RuntimeException("Too many open streams");
+            }
+            current.add(subscription);
+            return current;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        // Loaded on the subscribing request, so events for this user can be resolved from memory right away
+        plantAccessIndex.getAccessiblePlantIds(userId);
+        return emitter;
+    }
+
+    @EventListener
+    public void onLocalChange(ChangeEvent event) {
+        if (!changeStreamsEnabled) {
+            publish(event);
+        }
+    }
+
+    public void publish(ChangeEvent event) {
+        dispatcher.execute(() -> dispatch(event));
+    }
+
+    public int getConnectionCount() {
+        return subscriptionsByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void dispatch(ChangeEvent event) {
+        if (event.getRecipients() != null) {
+            for (String userId : event.getRecipients()) {
+                deliver(userId, event);
+            }
+            return;
+        }
+        if (event.getPlantId() == null) {
+            return;
+        }
+        // Only connected users are checked, and only against entries in memory
+        for (String userId : subscriptionsByUser.keySet()) {
+            Set<String> plantIds = plantAccessIndex.getLoadedPlantIds(userId);
+            if (plantIds == null) {
+                resync(userId);
+            } else if (plantIds.contains(event.getPlantId())) {
+                deliver(userId, event);
+            }
+        }
+    }
+
+    // The user may have missed this event, so the client refetches once the entry is back
+    private void resync(String userId) {
+        Set<Subscription> subscriptions = subscriptionsByUser.get(userId);
+        if (subscriptions != null) {
+            subscriptions.forEach(Subscription::resync);
+        }
+        if (loading.add(userId)) {
+            sender.execute(() -> {
+                try {
+                    plantAccessIndex.getAccessiblePlantIds(userId);
+                } finally {
+                    loading.remove(userId);
+                }
+            });
+        }
+    }
+
+    private void deliver(String userId, ChangeEvent event) {
+        Set<Subscription> subscriptions = subscriptionsByUser.get(userId);
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptionsByUser.computeIfPresent(subscription.userId, (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscription> subscriptions : subscriptionsByUser.values()) {
+            for (Subscription subscription : subscriptions) {
+                sender.execute(() -> subscription.send(SseEmitter.event().comment("ping")));
+            }
+        }
+    }
+
+    private class Subscription {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final Queue<ChangeEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean resyncPending = new AtomicBoolean();
+
+        Subscription(String userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(ChangeEvent event) {
+            if (!buffer.offer(event)) {
+                // The client fell behind; drop the backlog and let it resync from the REST endpoints
+                resync();
+                return;
+            }
+            schedule();
+        }
+
+        void resync() {
+            resyncPending.set(true);
+            buffer.clear();
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (resyncPending.getAndSet(false)) {
+                    ChangeEvent resync = new ChangeEvent();
+                    resync.setType(ChangeEvent.Type.RESYNC);
+                    send(SseEmitter.event().name(resync.getType().name()).data(resync, MediaType.APPLICATION_JSON));
+                }
+                ChangeEvent event;
+                while ((event = buffer.poll()) != null) {
+                    send(SseEmitter.event().name(event.getType().name()).data(event, MediaType.APPLICATION_JSON));
+                }
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been queued after the last poll but before the flag was released
+            if ((!buffer.isEmpty() || resyncPending.get()) && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private synchronized void send(SseEmitter.SseEventBuilder builder) {
+            try {
+                emitter.send(builder);
+            } catch (IOException | IllegalStateException e) {
+                buffer.clear();
+                unsubscribe(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
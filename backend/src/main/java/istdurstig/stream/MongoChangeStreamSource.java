@@ -0,0 +1,175 @@
+package istdurstig.stream;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import istdurstig.service.PlantAccessIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Feeds the stream hub from a MongoDB change stream instead of local service events, so every node sees
+ * writes made on any other node. Requires a replica set. List changes also evict the affected users from
+ * the plant access index, which would otherwise only be kept current for writes made on this node.
+ */
+@Component
+@ConditionalOnProperty(name = "app.stream.change-streams", havingValue = "true")
+public class MongoChangeStreamSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoChangeStreamSource.class);
+
+    private static final String PLANTS = "plants";
+    private static final String PLANT_LISTS = "plant_lists";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Absent in the reactive profile, which has no SSE endpoint; list changes still evict the access index there
+    @Autowired(required = false)
+    private ChangeStreamHub changeStreamHub;
+
+    @Autowired
+    private PlantAccessIndex plantAccessIndex;
+
+    private volatile boolean running = true;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "mongo-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (cursor != null) {
+            cursor.close();
+        }
+        worker.interrupt();
+    }
+
+    private void run() {
+        BsonDocument resumeToken = null;
+        int failures = 0;
+        while (running) {
+            try {
+                var changes = mongoTemplate.getDb()
+                        .watch(List.of(Aggregates.match(Filters.in("ns.coll", PLANTS, PLANT_LISTS))))
+                        .fullDocument(FullDocument.UPDATE_LOOKUP);
+                if (resumeToken != null) {
+                    changes = changes.resumeAfter(resumeToken);
+                }
+                cursor = changes.cursor();
+                while (running && cursor.hasNext()) {
+                    ChangeStreamDocument<Document> change = cursor.next();
+                    resumeToken = change.getResumeToken();
+                    failures = 0;
+                    handle(change);
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Change stream interrupted, resuming: {}", e.getMessage());
+                // List changes may have been missed while disconnected
+                plantAccessIndex.evictAll();
+                // The resume point may have rolled off the oplog; start from now instead of retrying forever
+                if (++failures >= 3) {
+                    resumeToken = null;
+                }
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null || change.getDocumentKey() == null) {
+            return;
+        }
+        String id = change.getDocumentKey().getObjectId("_id").getValue().toHexString();
+        Document document = change.getFullDocument();
+        Number version = document != null ? document.get("version", Number.class) : null;
+        OperationType operation = change.getOperationType();
+
+        if (PLANTS.equals(change.getNamespace().getCollectionName())) {
+            ChangeEvent.Type type = operation == OperationType.DELETE
+                    ? ChangeEvent.Type.PLANT_DELETED
+                    : touchesCareHistory(change) ? ChangeEvent.Type.CARE_EVENT_ADDED : ChangeEvent.Type.PLANT_UPDATED;
+            publish(ChangeEvent.forPlant(type, id, toLong(version), null));
+            return;
+        }
+
+        // Deleted lists carry no document, so their former members cannot be told apart
+        if (document == null) {
+            plantAccessIndex.evictAll();
+            return;
+        }
+        Set<String> members = new HashSet<>();
+        members.add(document.getString("ownerId"));
+        List<String> collaboratorIds = document.getList("collaboratorIds", String.class);
+        if (collaboratorIds != null) {
+            members.addAll(collaboratorIds);
+        }
+        // A removed collaborator is no longer in the document either
+        if (touchesCollaborators(change)) {
+            plantAccessIndex.evictAll();
+        } else {
+            members.forEach(plantAccessIndex::evict);
+        }
+
+        ChangeEvent event = ChangeEvent.forPlant(ChangeEvent.Type.LIST_UPDATED, null, toLong(version), null);
+        event.setListId(id);
+        event.setRecipients(members);
+        publish(event);
+    }
+
+    private void publish(ChangeEvent event) {
+        if (changeStreamHub != null) {
+            changeStreamHub.publish(event);
+        }
+    }
+
+    private static Long toLong(Number value) {
+        return value != null ? value.longValue() : null;
+    }
+
+    private boolean touchesCareHistory(ChangeStreamDocument<Document> change) {
+        return change.getUpdateDescription() != null
+                && change.getUpdateDescription().getUpdatedFields() != null
+                && change.getUpdateDescription().getUpdatedFields().keySet().stream()
+                        .anyMatch(field -> field.startsWith("careHistory"));
+    }
+
+    private boolean touchesCollaborators(ChangeStreamDocument<Document> change) {
+        if (change.getOperationType() == OperationType.INSERT) {
+            return false;
+        }
+        return change.getOperationType() != OperationType.UPDATE
+                || change.getUpdateDescription() == null
+                || change.getUpdateDescription().getUpdatedFields() == null
+                || change.getUpdateDescription().getUpdatedFields().keySet().stream()
+                        .anyMatch(field -> field.startsWith("collaboratorIds"));
+    }
+}
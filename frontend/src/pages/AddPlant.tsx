@@ -98,10 +98,9 @@ const AddPlant: React.FC = () => {
     try {
       let photoUrl = data.photoUrl;
 
-      // If user uploaded a file, convert to base64 for demo purposes
-      // In production, you'd upload to a cloud storage service
+      // If user uploaded a file, store it and keep only the photo reference
       if (photoFile && photoMethod === 'file') {
-        photoUrl = await convertFileToBase64(photoFile);
+        photoUrl = await plantsAPI.uploadPhoto(photoFile);
       }
 
       const plantData: PlantRequest = {
@@ -133,15 +132,6 @@ const AddPlant: React.FC = () => {
     }
   };
 
-  const convertFileToBase64 = (file: File): Promise<string> => {
-    return new Promise((resolve, reject) => {
-      const reader = new FileReader();
-      reader.readAsDataURL(file);
-      reader.onload = () => resolve(reader.result as string);
-      reader.onerror = error => reject(error);
-    });
-  };
-
   const handleFileChange = (event: React.ChangeEvent<HTMLInputElement>) => {
     const file = event.target.files?.[0];
     if (file) {
@@ -336,7 +326,7 @@ const AddPlant: React.FC = () => {
                                     id="photo-upload"
                                     type="file"
                                     className="sr-only"
-                                    accept="image/*"
+                                    accept="image/png,image/jpeg,image/webp,image/gif"
                                     onChange={handleFileChange}
                                 />
                               </label>
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '../contexts/AuthContext';
-import { Plant, CareEventType } from '../types';
-import { plantsAPI } from '../services/api';
+import { Dashboard as DashboardData, CareEventType } from '../types';
+import { dashboardAPI, plantsAPI } from '../services/api';
 import PlantCard from '../components/PlantCard';
 import { 
   Droplets, 
@@ -14,8 +14,7 @@ import {
 
 const Dashboard: React.FC = () => {
   const { user } = useAuth();
-  const [plants, setPlants] = useState<Plant[]>([]);
-  const [plantsDueToday, setPlantsDueToday] = useState<Plant[]>([]);
+  const [dashboard, setDashboard] = useState<DashboardData | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
 
@@ -26,12 +25,8 @@ const Dashboard: React.FC = () => {
   const fetchData = async () => {
     try {
       setLoading(true);
-      const [allPlants, dueToday] = await Promise.all([
-        plantsAPI.getAll(),
-        plantsAPI.getDueToday()
-      ]);
-      setPlants(allPlants);
-      setPlantsDueToday(dueToday);
+      // Counts, lists and the most overdue plants come from a single request
+      setDashboard(await dashboardAPI.get());
     } catch (err: any) {
       console.error('Error fetching dashboard data:', err);
       setError('Failed to load dashboard data');
@@ -56,20 +51,6 @@ const Dashboard: React.FC = () => {
     }
   };
 
-  const getStats = () => {
-    const totalPlants = plants.length;
-    const plantsNeedingWater = plantsDueToday.length;
-    const recentlyWatered = plants.filter(plant => {
-      if (!plant.schedule.lastWatered) return false;
-      const lastWatered = new Date(plant.schedule.lastWatered);
-      const yesterday = new Date();
-      yesterday.setDate(yesterday.getDate() - 1);
-      return lastWatered >= yesterday;
-    }).length;
-
-    return { totalPlants, plantsNeedingWater, recentlyWatered };
-  };
-
   if (loading) {
     return (
       <div className="flex items-center justify-center min-h-64">
@@ -92,7 +73,11 @@ const Dashboard: React.FC = () => {
     );
   }
 
-  const stats = getStats();
+  if (!dashboard) {
+    return null;
+  }
+
+  const { lists, totalPlants, dueCount, recentlyWateredCount, mostOverdue } = dashboard;
 
   return (
     <div className="space-y-6">
@@ -122,7 +107,7 @@ const Dashboard: React.FC = () => {
                     Total Plants
                   </dt>
                   <dd className="text-lg font-medium text-gray-900">
-                    {stats.totalPlants}
+                    {totalPlants}
                   </dd>
                 </dl>
               </div>
@@ -142,7 +127,7 @@ const Dashboard: React.FC = () => {
                     Need Water Today
                   </dt>
                   <dd className="text-lg font-medium text-gray-900">
-                    {stats.plantsNeedingWater}
+                    {dueCount}
                   </dd>
                 </dl>
               </div>
@@ -162,7 +147,7 @@ const Dashboard: React.FC = () => {
                     Recently Watered
                   </dt>
                   <dd className="text-lg font-medium text-gray-900">
-                    {stats.recentlyWatered}
+                    {recentlyWateredCount}
                   </dd>
                 </dl>
               </div>
@@ -177,12 +162,12 @@ const Dashboard: React.FC = () => {
           <div className="flex items-center">
             <Calendar className="h-5 w-5 text-gray-400 mr-2" />
             <h2 className="text-lg font-medium text-gray-900">
-              Plants Due Today ({plantsDueToday.length})
+              Plants Due Today ({dueCount})
             </h2>
           </div>
         </div>
         <div className="p-6">
-          {plantsDueToday.length === 0 ? (
+          {dueCount === 0 ? (
             <div className="text-center py-8">
               <CheckCircle className="mx-auto h-12 w-12 text-green-400" />
               <h3 className="mt-2 text-sm font-medium text-gray-900">
@@ -194,7 +179,7 @@ const Dashboard: React.FC = () => {
             </div>
           ) : (
             <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
-              {plantsDueToday.map((plant) => (
+              {mostOverdue.map((plant) => (
                 <PlantCard
                   key={plant.id}
                   plant={plant}
@@ -202,13 +187,23 @@ const Dashboard: React.FC = () => {
                   showActions={true}
                 />
               ))}
+              {dueCount > mostOverdue.length && (
+                <div className="col-span-full text-center">
+                  <a
+                    href="/plants"
+                    className="text-sm font-medium text-green-700 hover:text-green-800"
+                  >
+                    {mostOverdue.length > 0 ? 'Showing the most overdue, see' : 'See'} all {dueCount} plants due today
+                  </a>
+                </div>
+              )}
             </div>
           )}
         </div>
       </div>
 
-      {/* Recent Activity */}
-      {plants.length > 0 && (
+      {/* Lists Overview */}
+      {lists.length > 0 && (
         <div className="bg-white shadow rounded-lg">
           <div className="px-6 py-4 border-b border-gray-200">
             <div className="flex items-center">
@@ -220,31 +215,36 @@ const Dashboard: React.FC = () => {
           </div>
           <div className="p-6">
             <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
-              {plants.slice(0, 6).map((plant) => (
-                <PlantCard
-                  key={plant.id}
-                  plant={plant}
-                  onWater={handleWaterPlant}
-                  showActions={false}
-                />
-              ))}
-            </div>
-            {plants.length > 6 && (
-              <div className="mt-6 text-center">
+              {lists.map((list) => (
                 <a
-                  href="/plants"
-                  className="inline-flex items-center px-4 py-2 border border-transparent text-sm font-medium rounded-md text-green-700 bg-green-100 hover:bg-green-200 transition-colors duration-200"
+                  key={list.id}
+                  href={`/plant-lists/${list.id}`}
+                  className="block rounded-lg border border-gray-200 p-4 hover:border-green-300 transition-colors duration-200"
                 >
-                  View All Plants ({plants.length})
+                  <h3 className="text-sm font-medium text-gray-900">{list.name}</h3>
+                  {list.description && (
+                    <p className="mt-1 text-sm text-gray-500">{list.description}</p>
+                  )}
+                  <p className="mt-2 text-sm text-green-700">
+                    {list.plantCount} {list.plantCount === 1 ? 'plant' : 'plants'}
+                  </p>
                 </a>
-              </div>
-            )}
+              ))}
+            </div>
+            <div className="mt-6 text-center">
+              <a
+                href="/plants"
+                className="inline-flex items-center px-4 py-2 border border-transparent text-sm font-medium rounded-md text-green-700 bg-green-100 hover:bg-green-200 transition-colors duration-200"
+              >
+                View All Plants ({totalPlants})
+              </a>
+            </div>
           </div>
         </div>
       )}
 
       {/* Empty State */}
-      {plants.length === 0 && (
+      {totalPlants === 0 && (
         <div className="text-center py-12">
           <Leaf className="mx-auto h-12 w-12 text-gray-400" />
           <h3 className="mt-2 text-sm font-medium text-gray-900">
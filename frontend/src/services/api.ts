@@ -9,7 +9,8 @@ import {
   PlantList,
   PlantListRequest,
   User,
-  ShareListRequest
+  ShareListRequest,
+  Dashboard
 } from '../types';
 
 const API_BASE_URL = '/api';
@@ -51,14 +52,24 @@ api.interceptors.response.use(
 
 // File upload helper
 const uploadFile = async (file: File): Promise<string> => {
-  // In a real application, you would upload to a cloud storage service
-  // For demo purposes, we'll convert to base64
-  return new Promise((resolve, reject) => {
-    const reader = new FileReader();
-    reader.readAsDataURL(file);
-    reader.onload = () => resolve(reader.result as string);
-    reader.onerror = error => reject(error);
+  const formData = new FormData();
+  formData.append('file', file);
+  const response = await api.post('/photos', formData, {
+    headers: { 'Content-Type': 'multipart/form-data' },
   });
+  return response.data.url;
+};
+
+// Follows the X-Next-Cursor header until the server reports no further pages
+const fetchAllPages = async <T>(path: string): Promise<T[]> => {
+  const items: T[] = [];
+  let after: string | undefined;
+  do {
+    const response = await api.get(path, { params: { limit: 500, after } });
+    items.push(...response.data);
+    after = response.headers['x-next-cursor'];
+  } while (after);
+  return items;
 };
 
 // Auth API
@@ -90,8 +101,7 @@ export const usersAPI = {
 // Plants API
 export const plantsAPI = {
   getAll: async (): Promise<Plant[]> => {
-    const response = await api.get('/plants');
-    return response.data;
+    return fetchAllPages<Plant>('/plants');
   },
 
   getById: async (id: string): Promise<Plant> => {
@@ -119,12 +129,10 @@ export const plantsAPI = {
   },
 
   getDueToday: async (): Promise<Plant[]> => {
-    const response = await api.get('/plants/due-today');
-    return response.data;
+    return fetchAllPages<Plant>('/plants/due-today');
   },
 
   uploadPhoto: async (file: File): Promise<string> => {
-    // In production, implement actual file upload to cloud storage
     return await uploadFile(file);
   },
 };
@@ -132,8 +140,7 @@ export const plantsAPI = {
 // Plant Lists API
 export const plantListsAPI = {
   getAll: async (): Promise<PlantList[]> => {
-    const response = await api.get('/plant-lists');
-    return response.data;
+    return fetchAllPages<PlantList>('/plant-lists');
   },
 
   getById: async (id: string): Promise<PlantList> => {
@@ -176,4 +183,12 @@ export const plantListsAPI = {
   },
 };
 
+// Dashboard API
+export const dashboardAPI = {
+  get: async (top = 5): Promise<Dashboard> => {
+    const response = await api.get(`/dashboard?top=${top}`);
+    return response.data;
+  },
+};
+
 export default api;
\ No newline at end of file
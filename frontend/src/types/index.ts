@@ -107,4 +107,21 @@ export interface PlantList {
 export interface PlantListRequest {
   name: string;
   description?: string;
+}
+
+export interface PlantListSummary {
+  id: string;
+  name: string;
+  description?: string;
+  ownerId: string;
+  plantCount: number;
+}
+
+export interface Dashboard {
+  lists: PlantListSummary[];
+  totalPlants: number;
+  dueCount: number;
+  overdueCount: number;
+  recentlyWateredCount: number;
+  mostOverdue: Plant[];
 }
\ No newline at end of file